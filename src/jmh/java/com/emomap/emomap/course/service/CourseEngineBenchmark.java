@@ -0,0 +1,104 @@
+package com.emomap.emomap.course.service;
+
+import com.emomap.emomap.place.CompactPlacePool;
+import com.emomap.emomap.place.KakaoPlaceClient.KakaoPlaceDoc;
+import com.emomap.emomap.place.Kind;
+import com.emomap.emomap.place.PlaceAffinity;
+import com.emomap.emomap.place.PlaceLite;
+import com.emomap.emomap.place.PlaceSpatialIndex;
+import com.emomap.emomap.place.SyntheticPlaces;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.*;
+
+/*
+ * 코스 엔진 벤치마크(카카오/DB 없이 가짜 풀로).
+ * pickCourseWithRandomness는 뱅크 miss면 결국 CourseBuilder.build라서 build를 최적화/그리디 둘 다 잼.
+ */
+@State(Scope.Benchmark)
+public class CourseEngineBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    int places;
+
+    private Map<Kind, List<PlaceLite>> rawPools;
+    private PlacePoolCache.Snapshot snapshot;
+    private CourseBuilder optimized;
+    private CourseBuilder greedy;
+    private List<PlaceLite> withDuplicates;
+    private List<KakaoPlaceDoc> docs;
+    private final Random rnd = new Random(7L);
+
+    private static final List<Kind> GROUP = List.of(Kind.WALK, Kind.CAFE, Kind.ACTIVITY);
+
+    @Setup
+    public void setup() {
+        rawPools = SyntheticPlaces.pools(places, 42L);
+        CompactPlacePool pool = CompactPlacePool.from(rawPools);
+        snapshot = new PlacePoolCache.Snapshot(pool, PlaceSpatialIndex.build(pool), PlaceAffinity.none(), Instant.now());
+        optimized = new CourseBuilder(optimizer(true));
+        greedy = new CourseBuilder(optimizer(false));
+
+        // 카카오 여러 쿼리 결과를 합친 것처럼 1/3 정도 중복
+        List<PlaceLite> all = SyntheticPlaces.places(places, 42L);
+        withDuplicates = new ArrayList<>(all);
+        withDuplicates.addAll(all.subList(0, all.size() / 3));
+        Collections.shuffle(withDuplicates, new Random(1L));
+
+        docs = SyntheticPlaces.docs(places, 42L);
+    }
+
+    // @Value 기본값 그대로
+    private static CourseOptimizer optimizer(boolean enabled) {
+        CourseOptimizer o = new CourseOptimizer();
+        ReflectionTestUtils.setField(o, "enabled", enabled);
+        ReflectionTestUtils.setField(o, "beamWidth", 32);
+        ReflectionTestUtils.setField(o, "branch", 6);
+        ReflectionTestUtils.setField(o, "firstBranch", 8);
+        ReflectionTestUtils.setField(o, "epsilon", 0.1);
+        ReflectionTestUtils.setField(o, "timeBudgetMs", 30L);
+        return o;
+    }
+
+    @Benchmark
+    public List<PlaceLite> buildOptimized() {
+        return optimized.build("우정", snapshot, 3, rnd);
+    }
+
+    @Benchmark
+    public List<PlaceLite> buildGreedy() {
+        return greedy.build("우정", snapshot, 3, rnd);
+    }
+
+    @Benchmark
+    public int pickRandomFromTopK() {
+        double lat = SyntheticPlaces.SW_LAT + rnd.nextDouble() * (SyntheticPlaces.NE_LAT - SyntheticPlaces.SW_LAT);
+        double lng = SyntheticPlaces.SW_LNG + rnd.nextDouble() * (SyntheticPlaces.NE_LNG - SyntheticPlaces.SW_LNG);
+        return greedy.pickRandomFromTopK(GROUP, snapshot.index(), null, lat, lng, row -> false, rnd);
+    }
+
+    @Benchmark
+    public List<PlaceLite> dedupAndTrim() {
+        return PlacePoolLoader.dedupAndTrim(withDuplicates, 80);
+    }
+
+    @Benchmark
+    public List<PlaceLite> toLite() {
+        return docs.stream()
+                .filter(d -> PlacePoolLoader.inArea(d, "성북구"))
+                .map(PlacePoolLoader::toLite)
+                .toList();
+    }
+
+    @Benchmark
+    public PlaceSpatialIndex buildIndex() {
+        return PlaceSpatialIndex.build(snapshot.pool());
+    }
+
+    @Benchmark
+    public CompactPlacePool buildPool() {
+        return CompactPlacePool.from(rawPools);
+    }
+}
@@ -0,0 +1,38 @@
+package com.emomap.emomap.place;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/* 하버사인 거리 계산. 연속한 두 장소 사이 거리를 풀 전체에 대해 */
+@State(Scope.Benchmark)
+public class GeoBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    int places;
+
+    private double[] lat;
+    private double[] lng;
+
+    @Setup
+    public void setup() {
+        List<PlaceLite> all = SyntheticPlaces.places(places, 42L);
+        lat = new double[all.size()];
+        lng = new double[all.size()];
+        for (int i = 0; i < all.size(); i++) {
+            lat[i] = all.get(i).getLat();
+            lng[i] = all.get(i).getLng();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void haversineKm(Blackhole bh) {
+        int n = lat.length;
+        for (int i = 0; i < 1000; i++) {
+            int a = i % n, b = (i + 1) % n;
+            bh.consume(Geo.haversineKm(lat[a], lng[a], lat[b], lng[b]));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.emomap.emomap.place;
+
+import com.emomap.emomap.place.KakaoPlaceClient.KakaoPlaceDoc;
+
+import java.util.*;
+
+/* 벤치마크용 가짜 장소들. 성북구 bbox 안에 균등 분포, Kind는 돌아가며 배정 */
+public final class SyntheticPlaces {
+
+    public static final double SW_LAT = 37.586, SW_LNG = 127.005;
+    public static final double NE_LAT = 37.634, NE_LNG = 127.058;
+
+    private SyntheticPlaces() {}
+
+    public static List<PlaceLite> places(int n, long seed) {
+        Random rnd = new Random(seed);
+        List<PlaceLite> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(PlaceLite.builder()
+                    .id(String.valueOf(1_000_000 + i))
+                    .name("장소" + i)
+                    .roadAddress("서울 성북구 보문로 " + i)
+                    .lat(SW_LAT + rnd.nextDouble() * (NE_LAT - SW_LAT))
+                    .lng(SW_LNG + rnd.nextDouble() * (NE_LNG - SW_LNG))
+                    .kakaoUrl("http://place.map.kakao.com/" + (1_000_000 + i))
+                    .phone("02-000-" + i)
+                    .categoryGroupCode("CE7")
+                    .categoryName("음식점 > 카페")
+                    .build());
+        }
+        return out;
+    }
+
+    public static Map<Kind, List<PlaceLite>> pools(int n, long seed) {
+        Kind[] kinds = Kind.values();
+        Map<Kind, List<PlaceLite>> pools = new EnumMap<>(Kind.class);
+        for (Kind k : kinds) pools.put(k, new ArrayList<>());
+        List<PlaceLite> all = places(n, seed);
+        for (int i = 0; i < all.size(); i++) pools.get(kinds[i % kinds.length]).add(all.get(i));
+        return pools;
+    }
+
+    // 카카오 응답 문서 형태. 절반은 다른 구 주소라 toLite에서 걸러짐
+    public static List<KakaoPlaceDoc> docs(int n, long seed) {
+        Random rnd = new Random(seed);
+        List<KakaoPlaceDoc> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            KakaoPlaceDoc d = new KakaoPlaceDoc();
+            d.setId(String.valueOf(1_000_000 + i));
+            d.setPlaceName("장소" + i);
+            d.setRoadAddress(i % 2 == 0 ? "서울 성북구 보문로 " + i : "서울 종로구 대학로 " + i);
+            d.setAddressName("서울 성북구 안암동 " + i);
+            d.setX(String.valueOf(SW_LNG + rnd.nextDouble() * (NE_LNG - SW_LNG)));
+            d.setY(String.valueOf(SW_LAT + rnd.nextDouble() * (NE_LAT - SW_LAT)));
+            d.setPlaceUrl("http://place.map.kakao.com/" + (1_000_000 + i));
+            d.setPhone("02-000-" + i);
+            d.setCategoryGroupCode("CE7");
+            d.setCategoryName("음식점 > 카페");
+            out.add(d);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,61 @@
+package com.emomap.emomap.course.config;
+
+import com.emomap.emomap.place.Kind;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * 코스 추천 지역 설정. 아무것도 안 넣으면 성북구 하나만 기본으로 씀.
+ * 예)
+ * app.course.areas.종로구.sw-lng=126.95 ...
+ * app.course.areas.종로구.tile-rows=2
+ * app.course.areas.종로구.call-budget=60
+ * app.course.areas.종로구.queries[0].keyword=한옥카페
+ * app.course.areas.종로구.queries[0].kinds=CAFE
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "app.course")
+public class CourseAreaProperties {
+
+    private String defaultArea = "성북구";
+
+    private Map<String, AreaPlan> areas = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class AreaPlan {
+        // 지역 bbox
+        private double swLng;
+        private double swLat;
+        private double neLng;
+        private double neLat;
+
+        // bbox를 rows x cols 타일로 쪼개서 타일마다 따로 수집/저장
+        private int tileRows = 1;
+        private int tileCols = 1;
+
+        // 한 번 갱신할 때 이 지역에 쓸 수 있는 카카오 호출(페이지) 수
+        private int callBudget = 40;
+
+        // 비어 있으면 공통 쿼리 계획 사용
+        private List<QuerySpec> queries = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    public static class QuerySpec {
+        private String category;   // 카테고리 코드(CE7 등), keyword랑 둘 중 하나
+        private String keyword;
+        private int pages = 1;
+        private List<Kind> kinds = new ArrayList<>();
+    }
+}
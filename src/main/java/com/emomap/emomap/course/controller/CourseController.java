@@ -1,12 +1,17 @@
 package com.emomap.emomap.course.controller;
 
+import com.emomap.emomap.course.entity.dto.CourseBatchRequestDTO;
+import com.emomap.emomap.course.entity.dto.CourseBatchResponseDTO;
 import com.emomap.emomap.course.entity.dto.CourseRequestDTO;
 import com.emomap.emomap.course.entity.dto.CourseResponseDTO;
 import com.emomap.emomap.course.service.CourseService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/courses")
@@ -21,18 +26,51 @@ public class CourseController {
         };
     }
 
+    @Operation(summary = "코스 추천 지원 지역 목록", description = "recommend의 area에 넣을 수 있는 구 이름들")
+    @GetMapping("/areas")
+    public List<String> areas() {
+        return courseService.areas();
+    }
+
     @Operation(
-            summary = "감정 기반 코스 추천 (성북구 고정, 3개만 추천, 감정별 규칙)",
+            summary = "감정 기반 코스 추천 (지역 선택, 기본 3곳, 감정별 규칙 + 총 거리 최적화)",
             description = """
             요청(JSON) 예:
-            { "emotion": "화남/분노" }
-            - 프론트에서 emotion 하나만 보내면 됨.
-            - count=3, area=성북구 등은 서버에서 고정해놨음. 데이터에 따라 코스를 3개보다 적게 추천해줄 수도 있음.
+            { "emotion": "화남/분노", "area": "성북구" }
+            - 프론트에서 emotion 하나만 보내면 됨. area는 선택(없으면 기본 지역=성북구, /courses/areas 참고).
+            - 지원하지 않는 area면 400.
+            - count는 선택(기본 3, 최대 6). 데이터에 따라 코스를 count보다 적게 추천해줄 수도 있음.
+            - 감정 순서를 지키면서 총 이동거리가 짧은 코스들 중에서 랜덤으로 골라줌.
+            - X-Client-Id 헤더를 보내면 그 클라이언트가 최근 받은 코스(기본 5개)의 장소는 되도록 다시 안 나옴.
             응답: stops(순서=코스), polyline([[lat,lng], ...]), 총거리/도보 시간 포함.
             """
     )
     @PostMapping("/recommend")
-    public CourseResponseDTO recommend(@RequestBody CourseRequestDTO request) {
-        return courseService.recommend(request);
+    public CourseResponseDTO recommend(
+            @RequestBody CourseRequestDTO request,
+            @Parameter(description = "기기/세션 식별자(최근 받은 코스 회피용, 없으면 기록/회피 안 함)")
+            @RequestHeader(value = "X-Client-Id", required = false) String clientId
+    ) {
+        return courseService.recommend(request, clientId);
+    }
+
+    @Operation(
+            summary = "감정 여러 개 코스 한 번에 추천",
+            description = """
+            요청(JSON) 예:
+            { "emotions": ["우정", "외로움"], "area": "성북구", "perEmotion": 2 }
+            - emotions 없으면 전체 감정(/courses/emotions 순서).
+            - perEmotion은 선택(기본 1, 최대 3). count/area는 recommend와 같음.
+            - 같은 스냅샷 하나로 전부 만들고, 배치 안의 코스끼리는 장소가 안 겹침(장소가 모자라면 겹칠 수 있음).
+            응답: courses(감정 순서대로, 각 항목은 recommend 응답과 같은 형태)
+            """
+    )
+    @PostMapping("/recommend/batch")
+    public CourseBatchResponseDTO recommendBatch(
+            @RequestBody CourseBatchRequestDTO request,
+            @Parameter(description = "기기/세션 식별자(최근 받은 코스 회피용, 없으면 기록/회피 안 함)")
+            @RequestHeader(value = "X-Client-Id", required = false) String clientId
+    ) {
+        return courseService.recommendBatch(request, clientId);
     }
 }
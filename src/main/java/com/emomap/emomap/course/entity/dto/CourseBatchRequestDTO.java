@@ -0,0 +1,16 @@
+package com.emomap.emomap.course.entity.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record CourseBatchRequestDTO(
+        @Schema(description = "감정 목록(없으면 전체 감정)", example = "[\"우정\", \"외로움\"]")
+        List<String> emotions,
+        @Schema(description = "지역(구 이름, 없으면 기본 지역)", example = "성북구")
+        String area,
+        @Schema(description = "코스 장소 수(없으면 3, 최대 6)", example = "3")
+        Integer count,
+        @Schema(description = "감정 하나당 코스 수(없으면 1, 최대 3)", example = "1")
+        Integer perEmotion
+) {}
@@ -0,0 +1,8 @@
+package com.emomap.emomap.course.entity.dto;
+
+import java.util.List;
+
+public record CourseBatchResponseDTO(
+        String area,                        // 실제 추천된 지역(구)
+        List<CourseResponseDTO> courses     // 요청한 감정 순서대로, 감정마다 perEmotion개
+) {}
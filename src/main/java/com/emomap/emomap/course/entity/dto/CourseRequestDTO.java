@@ -4,5 +4,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 
 public record CourseRequestDTO(
         @Schema(description = "감정", example = "우정")
-        String emotion
+        String emotion,
+        @Schema(description = "지역(구 이름, 없으면 기본 지역)", example = "성북구")
+        String area,
+        @Schema(description = "코스 장소 수(없으면 3, 최대 6)", example = "3")
+        Integer count
 ) {}
@@ -4,7 +4,7 @@ import java.util.List;
 
 public record CourseResponseDTO(
         String emotion,             // 감정
-        String area,                // "성북구" 고정
+        String area,                // 실제 추천된 지역(구)
         int count,                  // 실제 추천되는 수(기본 3 목표)
         double totalDistanceKm,     // 총 직선거리
         int estimatedWalkMinutes,   // 4km/h 가정
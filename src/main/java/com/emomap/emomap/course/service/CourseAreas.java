@@ -0,0 +1,230 @@
+package com.emomap.emomap.course.service;
+
+import com.emomap.emomap.course.config.CourseAreaProperties;
+import com.emomap.emomap.course.config.CourseAreaProperties.AreaPlan;
+import com.emomap.emomap.course.config.CourseAreaProperties.QuerySpec;
+import com.emomap.emomap.course.service.PlacePoolLoader.PoolQuery;
+import com.emomap.emomap.place.KakaoPlaceClient.Rect;
+import com.emomap.emomap.place.Kind;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+
+/*
+ * 지역 -> 타일 목록 + 타일별 쿼리 계획.
+ * 지역마다 call-budget 안에서만 페이지를 나눠 주기 때문에 지역을 늘려도 갱신 한 번의 카카오 호출 수가 정해져 있음.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseAreas {
+
+    private final CourseAreaProperties props;
+
+    public record Tile(String key, Rect rect, List<PoolQuery> plan) {}
+
+    public record Area(String name, List<Tile> tiles) {
+        public List<String> tileKeys() { return tiles.stream().map(Tile::key).toList(); }
+    }
+
+    private Map<String, Area> areas = Map.of();
+
+    @PostConstruct
+    void init() {
+        Map<String, AreaPlan> plans = new LinkedHashMap<>(props.getAreas());
+        if (plans.isEmpty()) plans.put("성북구", seongbukPlan());
+
+        Map<String, Area> built = new LinkedHashMap<>();
+        plans.forEach((name, plan) -> {
+            List<PoolQuery> queries = plan.getQueries().isEmpty() ? commonPlan() : toQueries(plan.getQueries());
+            Area area = new Area(name, buildTiles(name, plan, queries));
+            built.put(name, area);
+            log.info("[AREA] {} tiles={} budget={} calls={}", name, area.tiles().size(), plan.getCallBudget(),
+                    area.tiles().stream().flatMap(t -> t.plan().stream()).mapToInt(PoolQuery::pages).sum());
+        });
+        this.areas = Collections.unmodifiableMap(built);
+    }
+
+    public String defaultArea() {
+        return areas.containsKey(props.getDefaultArea()) ? props.getDefaultArea() : areas.keySet().iterator().next();
+    }
+
+    public Set<String> names() {
+        return areas.keySet();
+    }
+
+    public Collection<Area> all() {
+        return areas.values();
+    }
+
+    public Optional<Area> find(String name) {
+        return Optional.ofNullable(areas.get(name));
+    }
+
+    // 요청의 area 값 -> 지원 지역명(없으면 기본 지역, 모르는 지역이면 400)
+    public String resolve(String requested) {
+        if (requested == null || requested.isBlank()) return defaultArea();
+        String s = requested.trim();
+        if (!areas.containsKey(s)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지원하지 않는 지역입니다: " + s);
+        }
+        return s;
+    }
+
+    /* ===== 타일 + 예산 배분 ===== */
+
+    private static List<Tile> buildTiles(String name, AreaPlan plan, List<PoolQuery> queries) {
+        int rows = Math.max(1, plan.getTileRows());
+        int cols = Math.max(1, plan.getTileCols());
+        double dLat = (plan.getNeLat() - plan.getSwLat()) / rows;
+        double dLng = (plan.getNeLng() - plan.getSwLng()) / cols;
+
+        List<Rect> rects = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                rects.add(new Rect(
+                        plan.getSwLng() + dLng * c, plan.getSwLat() + dLat * r,
+                        plan.getSwLng() + dLng * (c + 1), plan.getSwLat() + dLat * (r + 1)));
+            }
+        }
+
+        /*
+         * 예산 배분. 1페이지 먼저: 라운드마다 모든 쿼리에 타일 하나씩(쿼리 q는 타일 q부터 돌아가며)
+         * -> 예산이 모자라도 뒤쪽 쿼리(문화/액티비티 Kind)가 앞 쿼리들한테 다 밀리지 않음.
+         * 남으면 2페이지부터 (쿼리, 타일) 쌍마다 한 페이지씩, 예산이 모자라면 뒤쪽 페이지부터 잘림
+         */
+        int[][] pages = new int[queries.size()][rects.size()];
+        int remaining = Math.max(0, plan.getCallBudget());
+        for (int round = 0; round < rects.size() && remaining > 0; round++) {
+            for (int q = 0; q < queries.size() && remaining > 0; q++) {
+                if (queries.get(q).pages() < 1) continue;
+                pages[q][(q + round) % rects.size()] = 1;
+                remaining--;
+            }
+        }
+        int maxPages = queries.stream().mapToInt(PoolQuery::pages).max().orElse(0);
+        for (int p = 2; p <= maxPages && remaining > 0; p++) {
+            for (int q = 0; q < queries.size() && remaining > 0; q++) {
+                if (queries.get(q).pages() < p) continue;
+                for (int t = 0; t < rects.size() && remaining > 0; t++) {
+                    if (pages[q][t] != p - 1) continue;   // 앞 페이지 없는 타일은 건너뜀
+                    pages[q][t]++;
+                    remaining--;
+                }
+            }
+        }
+        for (int q = 0; q < queries.size(); q++) {
+            if (queries.get(q).pages() > 0 && Arrays.stream(pages[q]).sum() == 0) {
+                log.warn("[AREA] {} budget={} too small -> query {}={} gets no calls (kinds={})", name,
+                        plan.getCallBudget(), queries.get(q).category() ? "category" : "keyword",
+                        queries.get(q).value(), queries.get(q).kinds());
+            }
+        }
+
+        List<Tile> tiles = new ArrayList<>();
+        for (int t = 0; t < rects.size(); t++) {
+            List<PoolQuery> tilePlan = new ArrayList<>();
+            for (int q = 0; q < queries.size(); q++) {
+                if (pages[q][t] > 0) tilePlan.add(queries.get(q).withPages(pages[q][t]));
+            }
+            // 타일 하나면 키 = 지역명(기존 places 행 그대로 사용)
+            String key = rects.size() == 1 ? name : name + "#" + t;
+            tiles.add(new Tile(key, rects.get(t), List.copyOf(tilePlan)));
+        }
+        return List.copyOf(tiles);
+    }
+
+    private static List<PoolQuery> toQueries(List<QuerySpec> specs) {
+        List<PoolQuery> out = new ArrayList<>();
+        for (QuerySpec s : specs) {
+            Kind[] kinds = s.getKinds().toArray(new Kind[0]);
+            if (s.getCategory() != null && !s.getCategory().isBlank()) out.add(PoolQuery.category(s.getCategory(), s.getPages(), kinds));
+            else if (s.getKeyword() != null && !s.getKeyword().isBlank()) out.add(PoolQuery.keyword(s.getKeyword(), s.getPages(), kinds));
+        }
+        return List.copyOf(out);
+    }
+
+    /* ===== 기본 계획 ===== */
+
+    // Kind별로 합쳐지는 순서가 곧 dedup 우선순위라서 목록 순서 유지해야 함
+    private static List<PoolQuery> commonPlan() {
+        List<PoolQuery> plan = new ArrayList<>();
+        plan.add(PoolQuery.category("CE7", 3, Kind.CAFE));
+        plan.add(PoolQuery.category("FD6", 3, Kind.FOOD));
+        plan.add(PoolQuery.category("OL7", 2, Kind.PUB));
+
+        plan.add(PoolQuery.keyword("산책로", 2, Kind.WALK));
+        plan.add(PoolQuery.keyword("공원", 2, Kind.WALK));
+
+        plan.add(PoolQuery.keyword("전망", 1, Kind.VIEW));
+        plan.add(PoolQuery.keyword("야경", 1, Kind.VIEW));
+        plan.add(PoolQuery.keyword("루프탑", 1, Kind.VIEW));
+
+        plan.add(PoolQuery.keyword("소품샵", 2, Kind.SHOP));
+        plan.add(PoolQuery.keyword("서점", 1, Kind.SHOP));
+
+        for (String q : List.of("볼링장","방탈출","노래방","오락실","클라이밍","만화카페")) {
+            plan.add(PoolQuery.keyword(q, 1, Kind.ACTIVITY));
+        }
+
+        // 관광/문화는 Walk/View 양쪽에 뒤쪽으로 붙음
+        plan.add(PoolQuery.category("AT4", 2, Kind.WALK, Kind.VIEW));
+        plan.add(PoolQuery.category("CT1", 2, Kind.WALK, Kind.VIEW));
+        return List.copyOf(plan);
+    }
+
+    // 기존 성북구 고정 계획 그대로(페이지 합 39 -> 예산 40)
+    private static AreaPlan seongbukPlan() {
+        AreaPlan p = new AreaPlan();
+        p.setSwLng(127.005); p.setSwLat(37.586);
+        p.setNeLng(127.058); p.setNeLat(37.634);
+        p.setCallBudget(40);
+
+        List<QuerySpec> q = new ArrayList<>();
+        q.add(category("CE7", 3, Kind.CAFE));
+        q.add(category("FD6", 3, Kind.FOOD));
+        q.add(category("OL7", 2, Kind.PUB));
+
+        q.add(keyword("산책로", 2, Kind.WALK));
+        q.add(keyword("성곽길", 1, Kind.WALK));
+        q.add(keyword("성북천", 1, Kind.WALK));
+        q.add(keyword("정릉천", 1, Kind.WALK));
+        q.add(keyword("공원", 2, Kind.WALK));
+
+        q.add(keyword("전망", 1, Kind.VIEW));
+        q.add(keyword("야경", 1, Kind.VIEW));
+        q.add(keyword("루프탑", 1, Kind.VIEW));
+
+        q.add(keyword("소품샵", 2, Kind.SHOP));
+        q.add(keyword("문구점", 1, Kind.SHOP));
+        q.add(keyword("빈티지샵", 1, Kind.SHOP));
+        q.add(keyword("서점", 1, Kind.SHOP));
+        q.add(keyword("플라워", 1, Kind.SHOP));
+
+        for (String kw : List.of("볼링장","다트","사격","방탈출","노래방","오락실","클라이밍","스크린골프","스크린야구","만화카페","탁구")) {
+            q.add(keyword(kw, 1, Kind.ACTIVITY));
+        }
+
+        q.add(category("AT4", 2, Kind.WALK, Kind.VIEW));
+        q.add(category("CT1", 2, Kind.WALK, Kind.VIEW));
+        p.setQueries(q);
+        return p;
+    }
+
+    private static QuerySpec category(String code, int pages, Kind... kinds) {
+        QuerySpec s = new QuerySpec();
+        s.setCategory(code); s.setPages(pages); s.setKinds(List.of(kinds));
+        return s;
+    }
+
+    private static QuerySpec keyword(String kw, int pages, Kind... kinds) {
+        QuerySpec s = new QuerySpec();
+        s.setKeyword(kw); s.setPages(pages); s.setKinds(List.of(kinds));
+        return s;
+    }
+}
@@ -0,0 +1,148 @@
+package com.emomap.emomap.course.service;
+
+import com.emomap.emomap.place.PlaceLite;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/*
+ * 스냅샷이 바뀔 때마다 감정별로 코스를 미리 N개씩 만들어두는 곳.
+ * 추천 요청은 여기서 하나 뽑기만 함(기본 장소 수일 때만, 나머지는 바로 생성).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseBank {
+
+    private final CourseBuilder courseBuilder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.course.bank.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.course.bank.size-per-emotion:50}")
+    private int sizePerEmotion;
+
+    @Value("${app.course.stop-count:3}")
+    private int stopCount;
+
+    // 어떤 스냅샷으로 만든 뱅크인지 같이 들고 있음(스냅샷 바뀌면 재생성, 끝날 때까지는 이전 것으로 뽑음)
+    private record Bank(PlacePoolCache.Snapshot snapshot, Map<String, List<List<PlaceLite>>> byEmotion) {
+        int size() { return byEmotion.values().stream().mapToInt(List::size).sum(); }
+    }
+
+    private final Map<String, Bank> banks = new ConcurrentHashMap<>();
+    private final Set<String> rebuilding = ConcurrentHashMap.newKeySet();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "course-bank-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        Gauge.builder("course.bank.size", banks, m -> m.values().stream().mapToInt(Bank::size).sum())
+                .description("미리 만들어둔 코스 수")
+                .register(meterRegistry);
+        rebuildTimer = Timer.builder("course.bank.rebuild")
+                .description("지역 하나 코스 뱅크 재생성 시간")
+                .register(meterRegistry);
+    }
+
+    /* 뱅크에서 accept를 통과하는 코스 하나 뽑기. 못 쓰는 상황이면 empty -> 호출하는 쪽에서 바로 생성 */
+    public Optional<List<PlaceLite>> draw(String area, String emotion, int count,
+                                          PlacePoolCache.Snapshot snapshot, Predicate<List<PlaceLite>> accept) {
+        if (!enabled || count != stopCount) return miss("count");
+        Bank bank = banks.get(area);
+        if (bank == null) {
+            rebuildAsync(area, snapshot);
+            return miss("stale");
+        }
+        String reason = "none";
+        if (bank.snapshot() != snapshot) {
+            // 갱신 직후 재생성 끝날 때까지 hit가 0이 되지 않게 이전 세대 그대로 씀(장소 몇 개 차이 정도)
+            rebuildAsync(area, snapshot);
+            reason = "previous_generation";
+        }
+        List<List<PlaceLite>> courses = bank.byEmotion().getOrDefault(emotion, List.of());
+        if (courses.isEmpty()) return miss("empty");
+
+        // 랜덤으로 몇 번 뽑아보고, 다 최근 기록이랑 겹치면 그냥 miss
+        Random rnd = new Random(System.nanoTime());
+        for (int attempt = 0; attempt < 8; attempt++) {
+            List<PlaceLite> c = courses.get(rnd.nextInt(courses.size()));
+            if (accept.test(c)) {
+                meterRegistry.counter("course.bank.draws", "result", "hit", "reason", reason).increment();
+                return Optional.of(c);
+            }
+        }
+        return miss("repeat");
+    }
+
+    @EventListener
+    public void onSnapshotUpdated(PlacePoolCache.SnapshotUpdated event) {
+        rebuildAsync(event.area(), event.snapshot());
+    }
+
+    private void rebuildAsync(String area, PlacePoolCache.Snapshot snapshot) {
+        if (!enabled || !rebuilding.add(area)) return;
+        rebuildExecutor.execute(() -> {
+            try { rebuild(area, snapshot); } finally { rebuilding.remove(area); }
+        });
+    }
+
+    private void rebuild(String area, PlacePoolCache.Snapshot snapshot) {
+        Bank current = banks.get(area);
+        if (current != null && current.snapshot() == snapshot) return;
+
+        long started = System.nanoTime();
+        Random rnd = new Random(started);
+        Map<String, List<List<PlaceLite>>> byEmotion = new HashMap<>();
+        for (String emotion : courseBuilder.emotions()) {
+            // 같은 장소 조합은 한 번만 -> 서로 다른 코스 위주로
+            Map<List<String>, List<PlaceLite>> uniq = new LinkedHashMap<>();
+            int attempts = sizePerEmotion * 3;
+            for (int i = 0; i < attempts && uniq.size() < sizePerEmotion; i++) {
+                List<PlaceLite> c = courseBuilder.build(emotion, snapshot, stopCount, rnd);
+                if (!c.isEmpty()) uniq.putIfAbsent(sortedIds(c), List.copyOf(c));
+            }
+            byEmotion.put(emotion, List.copyOf(uniq.values()));
+        }
+        Bank bank = new Bank(snapshot, Map.copyOf(byEmotion));
+        banks.put(area, bank);
+
+        long tookNs = System.nanoTime() - started;
+        rebuildTimer.record(tookNs, TimeUnit.NANOSECONDS);
+        log.info("[BANK] rebuilt area={} courses={} took={}ms", area, bank.size(), tookNs / 1_000_000);
+    }
+
+    private Optional<List<PlaceLite>> miss(String reason) {
+        meterRegistry.counter("course.bank.draws", "result", "miss", "reason", reason).increment();
+        return Optional.empty();
+    }
+
+    static List<String> sortedIds(List<PlaceLite> course) {
+        return course.stream().map(PlaceLite::getId).sorted().toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+}
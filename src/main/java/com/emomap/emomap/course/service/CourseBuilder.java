@@ -0,0 +1,153 @@
+package com.emomap.emomap.course.service;
+
+import com.emomap.emomap.place.CompactPlacePool;
+import com.emomap.emomap.place.Kind;
+import com.emomap.emomap.place.PlaceLite;
+import com.emomap.emomap.place.PlaceSpatialIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/* 스냅샷 하나 + 감정 -> 코스 장소 목록(최근 코스 회피는 exclude로 받음) */
+@Component
+@RequiredArgsConstructor
+public class CourseBuilder {
+
+    private final CourseOptimizer optimizer;
+
+    // 감정별 코스 시퀀스(각 단계는 OR 그룹)
+    private static final Map<String, List<List<Kind>>> EMOTION_SEQUENCE = Map.of(
+            "우정", List.of(
+                    List.of(Kind.WALK, Kind.ACTIVITY),
+                    List.of(Kind.CAFE),
+                    List.of(Kind.SHOP, Kind.FOOD)
+            ),
+            "향수", List.of(
+                    List.of(Kind.WALK, Kind.VIEW),
+                    List.of(Kind.CAFE),
+                    List.of(Kind.SHOP)
+            ),
+            "설렘/사랑", List.of(
+                    List.of(Kind.CAFE),
+                    List.of(Kind.VIEW, Kind.WALK),
+                    List.of(Kind.SHOP)
+            ),
+            "가족", List.of(
+                    List.of(Kind.WALK),
+                    List.of(Kind.FOOD),
+                    List.of(Kind.CAFE)
+            ),
+            "위로/치유", List.of(
+                    List.of(Kind.WALK),
+                    List.of(Kind.CAFE),
+                    List.of(Kind.VIEW)
+            ),
+            "외로움", List.of(
+                    List.of(Kind.WALK),
+                    List.of(Kind.VIEW),
+                    List.of(Kind.CAFE)
+            ),
+            "기쁨/신남", List.of(
+                    List.of(Kind.ACTIVITY),
+                    List.of(Kind.FOOD),
+                    List.of(Kind.CAFE)
+            ),
+            "화남/분노", List.of(
+                    List.of(Kind.ACTIVITY),
+                    List.of(Kind.PUB, Kind.FOOD),
+                    List.of(Kind.WALK, Kind.VIEW)
+            )
+    );
+
+    private static final int TOP_K_NEAR = 5;
+    private static final List<Kind> ALL_KINDS = List.of(Kind.values());
+
+    public Set<String> emotions() {
+        return EMOTION_SEQUENCE.keySet();
+    }
+
+    public List<PlaceLite> build(String emotion, PlacePoolCache.Snapshot snapshot, int count, Random rnd) {
+        return build(emotion, snapshot, count, Set.of(), rnd);
+    }
+
+    // exclude에 있는 장소는 안 씀(최근에 받은 코스 회피용)
+    public List<PlaceLite> build(String emotion, PlacePoolCache.Snapshot snapshot, int count,
+                                 Set<String> exclude, Random rnd) {
+        CompactPlacePool pool = snapshot.pool();
+        double[] centroid = pool.centroid();
+        List<List<Kind>> steps = stepsFor(emotion, count);
+        BitSet excluded = pool.rowsOf(exclude);
+        float[] affinity = snapshot.affinity().scores(emotion);   // 이 감정 게시글이 많은 장소 우선
+
+        // 기본은 총 거리 최적화(빔 서치), 끄면 예전처럼 단계별 근접 TOP_K_NEAR 랜덤
+        // 선택은 전부 행 번호로 하고 고른 장소만 PlaceLite로 만듦
+        int[] rows = optimizer.isEnabled()
+                ? optimizer.optimize(steps, pool, snapshot.index(), affinity, centroid[0], centroid[1], excluded, rnd)
+                : pickGreedy(steps, pool, snapshot.index(), affinity, centroid[0], centroid[1], count, excluded, rnd);
+        return pool.toLite(rows);
+    }
+
+    private int[] pickGreedy(List<List<Kind>> steps, CompactPlacePool pool, PlaceSpatialIndex index, float[] affinity,
+                             double curLat, double curLng, int count, BitSet exclude, Random rnd) {
+        int[] picked = new int[count];
+        int n = 0;
+        BitSet used = (BitSet) exclude.clone();
+
+        for (List<Kind> group : steps) {
+            int p = pickRandomFromTopK(group, index, affinity, curLat, curLng, used::get, rnd);
+            if (p >= 0) {
+                picked[n++] = p; used.set(p);
+                curLat = pool.lat(p); curLng = pool.lng(p);
+            }
+            if (n >= count) break;
+        }
+
+        // 부족분은 전체에서 근접 TOP_K_NEAR 중 랜덤으로 채움
+        while (n < count) {
+            int[] near = index.nearest(ALL_KINDS, curLat, curLng, TOP_K_NEAR, used::get);
+            if (near.length == 0) break;
+
+            int p = near[rnd.nextInt(near.length)];
+            picked[n++] = p; used.set(p);
+
+            curLat = pool.lat(p);
+            curLng = pool.lng(p);
+        }
+        return Arrays.copyOf(picked, n);
+    }
+
+    // 감정 시퀀스를 count 길이로(시퀀스보다 길면 처음부터 다시 돌림)
+    private List<List<Kind>> stepsFor(String emotion, int count) {
+        List<List<Kind>> seq = EMOTION_SEQUENCE.getOrDefault(
+                emotion,
+                List.of(
+                        List.of(Kind.WALK, Kind.CAFE, Kind.ACTIVITY),
+                        List.of(Kind.CAFE, Kind.FOOD, Kind.SHOP),
+                        List.of(Kind.SHOP, Kind.VIEW, Kind.FOOD)
+                )
+        );
+        List<List<Kind>> steps = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) steps.add(seq.get(i % seq.size()));
+        return steps;
+    }
+
+    // 벤치마크(src/jmh)에서도 부르려고 package-private. 후보 없으면 -1
+    // 근접 TOP_K_NEAR 중 랜덤, 감정 친화도가 있으면 높을수록 잘 뽑힘(가중치 1 + 2*친화도)
+    int pickRandomFromTopK(List<Kind> group, PlaceSpatialIndex index, float[] affinity,
+                           double lat, double lng, IntPredicate skip, Random rnd) {
+        int[] candidates = index.nearest(group, lat, lng, TOP_K_NEAR, skip);
+        if (candidates.length == 0) return -1;
+        if (affinity == null) return candidates[rnd.nextInt(candidates.length)];
+
+        double total = 0;
+        for (int c : candidates) total += 1.0 + 2.0 * affinity[c];
+        double x = rnd.nextDouble() * total;
+        for (int c : candidates) {
+            x -= 1.0 + 2.0 * affinity[c];
+            if (x <= 0) return c;
+        }
+        return candidates[candidates.length - 1];
+    }
+}
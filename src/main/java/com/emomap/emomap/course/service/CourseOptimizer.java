@@ -0,0 +1,110 @@
+package com.emomap.emomap.course.service;
+
+import com.emomap.emomap.place.CompactPlacePool;
+import com.emomap.emomap.place.Geo;
+import com.emomap.emomap.place.Kind;
+import com.emomap.emomap.place.PlaceSpatialIndex;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/*
+ * 감정 시퀀스(단계별 OR 그룹)를 따라가면서 총 이동거리가 짧은 코스를 빔 서치로 찾음.
+ * - 단계마다 각 후보 경로에서 가까운 branch개로만 확장하고, 비용(거리 + 감정 친화도 페널티) 낮은 순으로 beamWidth개만 남김
+ * - 시간 예산을 넘기면 남은 단계는 가장 가까운 곳 하나씩(그리디)으로 마무리
+ * - 마지막엔 최단 경로 대비 epsilon 이내인 것들 중 랜덤 -> 매번 같은 코스만 나오지 않게
+ */
+@Slf4j
+@Component
+public class CourseOptimizer {
+
+    private static final List<Kind> ALL_KINDS = List.of(Kind.values());
+
+    @Getter
+    @Value("${app.course.optimizer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.course.optimizer.beam-width:32}")
+    private int beamWidth;
+
+    @Value("${app.course.optimizer.branch:6}")          // 상태 하나에서 다음 단계로 펼칠 후보 수
+    private int branch;
+
+    @Value("${app.course.optimizer.first-branch:8}")    // 첫 장소는 시작점 근처 이만큼에서
+    private int firstBranch;
+
+    @Value("${app.course.optimizer.epsilon:0.1}")       // 최단 대비 10% 이내면 "거의 최적"
+    private double epsilon;
+
+    @Value("${app.course.optimizer.time-budget-ms:30}")
+    private long timeBudgetMs;
+
+    @Value("${app.course.affinity.weight-km:0.3}")      // 감정 친화도 0인 장소는 이만큼 더 먼 것처럼 취급
+    private double affinityWeightKm;
+
+    // 경로 = 행 번호 배열(최대 6개라 포함 여부는 선형 탐색). cost = 거리 + 감정 친화도 낮은 장소 페널티
+    private record Partial(int[] stops, double km, double cost) {
+        int last() { return stops[stops.length - 1]; }
+
+        boolean has(int row) {
+            for (int s : stops) if (s == row) return true;
+            return false;
+        }
+
+        Partial plus(int row, CompactPlacePool pool, double penalty) {
+            int[] s = Arrays.copyOf(stops, stops.length + 1);
+            s[stops.length] = row;
+            double add = stops.length == 0 ? 0.0
+                    : Geo.haversineKm(pool.lat(last()), pool.lng(last()), pool.lat(row), pool.lng(row));
+            return new Partial(s, km + add, cost + add + penalty);
+        }
+    }
+
+    /* 최종 경로의 행 번호들(PlaceLite 변환은 호출하는 쪽에서 고른 것만) */
+    // affinity: 행별 감정 친화도(0~1), 없으면 null -> 순수 거리 기준
+    public int[] optimize(List<List<Kind>> steps, CompactPlacePool pool, PlaceSpatialIndex index, float[] affinity,
+                          double startLat, double startLng, BitSet exclude, Random rnd) {
+        long deadline = System.nanoTime() + timeBudgetMs * 1_000_000L;
+        List<Partial> beam = List.of(new Partial(new int[0], 0.0, 0.0));
+        boolean late = false;
+
+        for (List<Kind> group : steps) {
+            late = late || System.nanoTime() > deadline;
+            int width = late ? 1 : Math.max(1, beamWidth);
+            int fan = late ? 1 : Math.max(1, branch);
+
+            List<Partial> next = new ArrayList<>();
+            for (Partial st : beam) {
+                boolean first = st.stops().length == 0;
+                double lat = first ? startLat : pool.lat(st.last());
+                double lng = first ? startLng : pool.lng(st.last());
+                int k = first && !late ? Math.max(fan, firstBranch) : fan;
+
+                IntPredicate skip = row -> exclude.get(row) || st.has(row);
+                int[] cands = index.nearest(group, lat, lng, k, skip);
+                // 그룹에 남은 후보가 없으면 전체에서 근접 후보로 채움
+                if (cands.length == 0) cands = index.nearest(ALL_KINDS, lat, lng, k, skip);
+                for (int c : cands) {
+                    double penalty = affinity == null ? 0.0 : affinityWeightKm * (1.0 - affinity[c]);
+                    next.add(st.plus(c, pool, penalty));
+                }
+            }
+            if (next.isEmpty()) break; // 더 넣을 장소가 아예 없음
+
+            next.sort(Comparator.comparingDouble(Partial::cost));
+            beam = next.size() > width ? next.subList(0, width) : next;
+        }
+
+        if (late) log.debug("[COURSE] optimizer hit time budget {}ms -> greedy finish", timeBudgetMs);
+
+        double best = beam.get(0).cost();
+        List<Partial> nearOptimal = beam.stream()
+                .filter(p -> p.cost() <= best * (1.0 + epsilon) + 1e-9)
+                .toList();
+        return nearOptimal.get(rnd.nextInt(nearOptimal.size())).stops();
+    }
+}
@@ -1,35 +1,43 @@
 package com.emomap.emomap.course.service;
 
+import com.emomap.emomap.course.entity.dto.CourseBatchRequestDTO;
+import com.emomap.emomap.course.entity.dto.CourseBatchResponseDTO;
 import com.emomap.emomap.course.entity.dto.CourseRequestDTO;
 import com.emomap.emomap.course.entity.dto.CourseResponseDTO;
 import com.emomap.emomap.course.entity.dto.CourseStopDTO;
-import com.emomap.emomap.place.KakaoPlaceClient;
-import com.emomap.emomap.place.KakaoPlaceClient.KakaoPlaceDoc;
-import com.emomap.emomap.place.KakaoPlaceClient.Rect;
+import com.emomap.emomap.place.CompactPlacePool;
+import com.emomap.emomap.place.Geo;
 import com.emomap.emomap.place.PlaceLite;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CourseService {
 
-    private final KakaoPlaceClient kakao;
+    private final PlacePoolCache poolCache;
+    private final CourseAreas areas;
+    private final CourseBuilder courseBuilder;
+    private final CourseBank courseBank;
+    private final RecentCourseStore recentCourses;
 
-    private static final String AREA_DEFAULT = "성북구";
-    private static final int COUNT_FIXED = 3;
-    // 성북구 대략 bbox
-    private static final Rect SB_RECT = new Rect(127.005, 37.586, 127.058, 37.634);
+    @Value("${app.course.stop-count:3}")        // count 안 보냈을 때 코스 장소 수
+    private int defaultStopCount;
 
-    private enum Kind { WALK, VIEW, CAFE, SHOP, FOOD, PUB, ACTIVITY }
+    @Value("${app.course.max-stop-count:6}")
+    private int maxStopCount;
 
-    private static final Set<String> EMOTIONS_KO = Set.of(
+    @Value("${app.course.batch.max-per-emotion:3}")   // 배치에서 감정 하나당 최대 코스 수
+    private int maxBatchPerEmotion;
+
+    // /courses/emotions 와 같은 순서(배치 응답 순서)
+    private static final List<String> EMOTION_ORDER = List.of(
             "가족","우정","위로/치유","외로움","설렘/사랑","향수","기쁨/신남","화남/분노"
     );
+    private static final Set<String> EMOTIONS_KO = Set.copyOf(EMOTION_ORDER);
     private static final Map<String, String> EN2KO = Map.ofEntries(
             Map.entry("family","가족"),
             Map.entry("friendship","우정"),
@@ -41,67 +49,73 @@ public class CourseService {
             Map.entry("anger","화남/분노")
     );
 
-    // 감정별 코스 시퀀스(각 단계는 OR 그룹)
-    private static final Map<String, List<List<Kind>>> EMOTION_SEQUENCE = Map.of(
-            "우정", List.of(
-                    List.of(Kind.WALK, Kind.ACTIVITY),
-                    List.of(Kind.CAFE),
-                    List.of(Kind.SHOP, Kind.FOOD)
-            ),
-            "향수", List.of(
-                    List.of(Kind.WALK, Kind.VIEW),
-                    List.of(Kind.CAFE),
-                    List.of(Kind.SHOP)
-            ),
-            "설렘/사랑", List.of(
-                    List.of(Kind.CAFE),
-                    List.of(Kind.VIEW, Kind.WALK),
-                    List.of(Kind.SHOP)
-            ),
-            "가족", List.of(
-                    List.of(Kind.WALK),
-                    List.of(Kind.FOOD),
-                    List.of(Kind.CAFE)
-            ),
-            "위로/치유", List.of(
-                    List.of(Kind.WALK),
-                    List.of(Kind.CAFE),
-                    List.of(Kind.VIEW)
-            ),
-            "외로움", List.of(
-                    List.of(Kind.WALK),
-                    List.of(Kind.VIEW),
-                    List.of(Kind.CAFE)
-            ),
-            "기쁨/신남", List.of(
-                    List.of(Kind.ACTIVITY),
-                    List.of(Kind.FOOD),
-                    List.of(Kind.CAFE)
-            ),
-            "화남/분노", List.of(
-                    List.of(Kind.ACTIVITY),
-                    List.of(Kind.PUB, Kind.FOOD),
-                    List.of(Kind.WALK, Kind.VIEW)
-            )
-    );
-
-    private static final Map<String, List<String>> LAST_RESULT_BY_EMOTION = new ConcurrentHashMap<>();
+    public List<String> areas() {
+        return List.copyOf(areas.names());
+    }
 
-    private static final int TOP_K_NEAR = 5;
+    public CourseResponseDTO recommend(CourseRequestDTO req, String clientId) {
+        String emotion = normalizeEmotion(req.emotion());
+        String client = clientKey(clientId);
+        String area = areas.resolve(req.area());
+        int count = resolveCount(req.count());
+
+        // 요청마다 카카오를 부르지 않고 백그라운드에서 갱신되는 스냅샷 사용
+        PlacePoolCache.Snapshot snapshot = poolCache.snapshot(area);
+        if (snapshot.totalCount() == 0) {
+            return new CourseResponseDTO(emotion, area, 0, 0.0, 0, List.of(), List.of());
+        }
 
+        // 코스 선택(랜덤성 + 이 클라이언트가 최근 받은 코스 회피, 클라이언트 id 없으면 회피 없음)
+        List<PlaceLite> picked = pickCourseWithRandomness(emotion, area, snapshot, count, client);
 
-    public CourseResponseDTO recommend(CourseRequestDTO req) {
-        String emotion = normalizeEmotion(req.emotion());
+        return toResponse(emotion, area, picked);
+    }
 
-        Map<Kind, List<PlaceLite>> pools = fetchPoolsFromKakao();
-        int totalCount = pools.values().stream().mapToInt(List::size).sum();
-        if (totalCount == 0) {
-            return new CourseResponseDTO(emotion, AREA_DEFAULT, 0, 0.0, 0, List.of(), List.of());
+    /*
+     * 여러 감정 코스를 한 번에. 스냅샷 하나로 전부 만들고,
+     * 같은 배치 안의 코스끼리는 장소가 안 겹치게(풀이 모자라면 그때만 겹침 허용).
+     */
+    public CourseBatchResponseDTO recommendBatch(CourseBatchRequestDTO req, String clientId) {
+        String client = clientKey(clientId);
+        String area = areas.resolve(req.area());
+        int count = resolveCount(req.count());
+        int perEmotion = Math.max(1, Math.min(req.perEmotion() == null ? 1 : req.perEmotion(), maxBatchPerEmotion));
+
+        // 감정 안 보내면 전체 감정, 중복은 한 번만
+        List<String> emotions = (req.emotions() == null || req.emotions().isEmpty())
+                ? EMOTION_ORDER
+                : req.emotions().stream().map(this::normalizeEmotion).distinct().toList();
+
+        PlacePoolCache.Snapshot snapshot = poolCache.snapshot(area);
+        if (snapshot.totalCount() == 0) {
+            return new CourseBatchResponseDTO(area, List.of());
         }
 
-        // 코스 선택(랜덤성 + 직전 결과 회피)
-        List<PlaceLite> picked = pickCourseWithRandomness(emotion, pools);
+        Random rnd = new Random(System.nanoTime());
+        Set<String> recentIds = new HashSet<>();
+        if (client != null) recentCourses.recent(client).forEach(recentIds::addAll);
+        Set<String> batchUsed = new LinkedHashSet<>();
+
+        List<CourseResponseDTO> courses = new ArrayList<>();
+        for (String emotion : emotions) {
+            for (int i = 0; i < perEmotion; i++) {
+                Set<String> avoidAll = new HashSet<>(recentIds);
+                avoidAll.addAll(batchUsed);
+                // 최근 + 배치 -> 배치만 -> 제한 없음 순으로 완화
+                List<PlaceLite> picked = pickAvoiding(emotion, area, snapshot, count,
+                        List.of(avoidAll, Set.copyOf(batchUsed)), rnd);
+                if (picked.isEmpty()) continue;
+
+                picked.forEach(p -> batchUsed.add(p.getId()));
+                courses.add(toResponse(emotion, area, picked));
+            }
+        }
+        // 배치 전체를 기록 하나로(코스마다 기록하면 최근 K개짜리 기록이 배치 하나로 다 밀려남)
+        if (client != null && !batchUsed.isEmpty()) recentCourses.record(client, List.copyOf(batchUsed));
+        return new CourseBatchResponseDTO(area, courses);
+    }
 
+    private CourseResponseDTO toResponse(String emotion, String area, List<PlaceLite> picked) {
         // 응답 매핑
         List<double[]> polyline = new ArrayList<>();
         List<CourseStopDTO> stops = new ArrayList<>();
@@ -113,7 +127,7 @@ public class CourseService {
 
             // 구간 거리(총 거리 계산에만 사용)
             if (i > 0) {
-                double segKm = round1(haversineKm(
+                double segKm = round1(Geo.haversineKm(
                         picked.get(i - 1).getLat(), picked.get(i - 1).getLng(),
                         p.getLat(), p.getLng()
                 ));
@@ -135,190 +149,64 @@ public class CourseService {
         }
 
         int walkMin = (int)Math.round(totalKm / 4.0 * 60.0);
-        return new CourseResponseDTO(emotion, AREA_DEFAULT, stops.size(), round1(totalKm), walkMin, polyline, stops);
+        return new CourseResponseDTO(emotion, area, stops.size(), round1(totalKm), walkMin, polyline, stops);
     }
 
-    private List<PlaceLite> pickCourseWithRandomness(String emotion, Map<Kind, List<PlaceLite>> pools) {
-        List<PlaceLite> picked = new ArrayList<>();
-        Set<String> used = new HashSet<>();
-
-        double[] centroid = centroidAll(pools);
-        double curLat = centroid[0], curLng = centroid[1];
-
-        List<List<Kind>> seq = EMOTION_SEQUENCE.getOrDefault(
-                emotion,
-                List.of(
-                        List.of(Kind.WALK, Kind.CAFE, Kind.ACTIVITY),
-                        List.of(Kind.CAFE, Kind.FOOD, Kind.SHOP),
-                        List.of(Kind.SHOP, Kind.VIEW, Kind.FOOD)
-                )
-        );
-
+    private List<PlaceLite> pickCourseWithRandomness(String emotion, String area,
+                                                     PlacePoolCache.Snapshot snapshot, int count, String client) {
         Random rnd = new Random(System.nanoTime());
-
-        for (List<Kind> group : seq) {
-            PlaceLite p = pickRandomFromTopK(group, pools, curLat, curLng, used, rnd);
-            if (p != null) {
-                picked.add(p); used.add(p.getId());
-                curLat = p.getLat(); curLng = p.getLng();
-            }
-            if (picked.size() >= COUNT_FIXED) break;
-        }
-
-        // 부족분은 전체에서 근접 TOP_K_NEAR 중 랜덤으로 채움
-        if (picked.size() < COUNT_FIXED) {
-
-            List<PlaceLite> rest = pools.values().stream().flatMap(List::stream)
-                    .filter(pl -> !used.contains(pl.getId()))
-                    .toList();
-            while (picked.size() < COUNT_FIXED && !rest.isEmpty()) {
-                final double refLat = curLat;
-                final double refLng = curLng;
-
-                rest = rest.stream()
-                        .sorted(Comparator.comparingDouble(pl ->
-                                haversineKm(pl.getLat(), pl.getLng(), refLat, refLng))) // ← refLat/refLng 사용
-                        .limit(TOP_K_NEAR)
-                        .collect(Collectors.toList());
-
-                PlaceLite p = rest.get(rnd.nextInt(rest.size()));
-                picked.add(p); used.add(p.getId());
-
-                curLat = p.getLat();
-                curLng = p.getLng();
-
-                rest = pools.values().stream().flatMap(List::stream)
-                        .filter(pl -> !used.contains(pl.getId()))
-                        .toList();
-            }
-        }
-
-        // 직전과 동일 조합이면 마지막 하나 교체 시도
-        List<String> ids = picked.stream().map(PlaceLite::getId).sorted().toList();
-        List<String> last = LAST_RESULT_BY_EMOTION.getOrDefault(emotion, List.of());
-        if (picked.size() == COUNT_FIXED && ids.equals(last)) {
-            replaceLastWithDifferent(picked, pools, rnd);
+        List<List<String>> recent = client == null ? List.of() : recentCourses.recent(client);
+        Set<String> recentIds = new HashSet<>();
+        recent.forEach(recentIds::addAll);
+
+        List<PlaceLite> picked = pickAvoiding(emotion, area, snapshot, count, List.of(recentIds), rnd);
+        // 최근 장소를 다 피하지 못한 경우엔 직전 코스와 똑같은 조합만이라도 피함
+        List<String> last = recent.isEmpty() ? List.of() : recent.get(0).stream().sorted().toList();
+        if (picked.size() == count && CourseBank.sortedIds(picked).equals(last)) {
+            replaceLastWithDifferent(picked, snapshot.pool(), rnd);
         }
-        LAST_RESULT_BY_EMOTION.put(emotion, picked.stream().map(PlaceLite::getId).sorted().toList());
 
+        if (client != null) recentCourses.record(client, picked.stream().map(PlaceLite::getId).toList());
         return picked;
     }
 
-    private PlaceLite pickRandomFromTopK(List<Kind> group, Map<Kind, List<PlaceLite>> pools,
-                                         double lat, double lng, Set<String> used, Random rnd) {
-        List<PlaceLite> candidates = new ArrayList<>();
-        for (Kind k : group) {
-            for (PlaceLite p : pools.getOrDefault(k, List.of())) {
-                if (!used.contains(p.getId())) candidates.add(p);
-            }
-        }
-        if (candidates.isEmpty()) return null;
-
-        candidates.sort(Comparator.comparingDouble(p -> haversineKm(lat, lng, p.getLat(), p.getLng())));
-        int limit = Math.min(TOP_K_NEAR, candidates.size());
-        return candidates.get(rnd.nextInt(limit));
+    // 헤더 없으면 null -> 기록/회피 안 함(공용 키 하나로 묶으면 익명 사용자끼리 서로 추천을 밀어냄)
+    private static String clientKey(String clientId) {
+        return (clientId == null || clientId.isBlank()) ? null : clientId.trim();
     }
 
-    private void replaceLastWithDifferent(List<PlaceLite> picked, Map<Kind, List<PlaceLite>> pools, Random rnd) {
-        Set<String> used = picked.stream().map(PlaceLite::getId).collect(Collectors.toSet());
-        List<PlaceLite> all = pools.values().stream().flatMap(List::stream)
-                .filter(p -> !used.contains(p.getId()))
-                .toList();
-        if (!all.isEmpty()) {
-            picked.set(picked.size() - 1, all.get(rnd.nextInt(all.size())));
+    /*
+     * avoidTiers를 앞에서부터 시도: 뱅크에서 안 겹치는 코스 -> 없으면 그 장소들 빼고 바로 생성.
+     * 풀이 작아서 count를 못 채우면 다음(더 느슨한) 단계로, 끝까지 안 되면 제한 없이 생성.
+     */
+    private List<PlaceLite> pickAvoiding(String emotion, String area, PlacePoolCache.Snapshot snapshot, int count,
+                                         List<Set<String>> avoidTiers, Random rnd) {
+        for (Set<String> avoid : avoidTiers) {
+            Optional<List<PlaceLite>> drawn = courseBank.draw(area, emotion, count, snapshot,
+                    c -> c.stream().noneMatch(p -> avoid.contains(p.getId())));
+            if (drawn.isPresent()) return new ArrayList<>(drawn.get());
+
+            List<PlaceLite> built = courseBuilder.build(emotion, snapshot, count, avoid, rnd);
+            if (built.size() >= count) return new ArrayList<>(built);
         }
+        return new ArrayList<>(courseBuilder.build(emotion, snapshot, count, rnd));
     }
 
-    /* ===== Kakao 후보 수집 ===== */
-
-    private Map<Kind, List<PlaceLite>> fetchPoolsFromKakao() {
-        Map<Kind, List<PlaceLite>> map = new EnumMap<>(Kind.class);
-        for (Kind k : Kind.values()) map.put(k, new ArrayList<>());
-
-        // 카테고리
-        map.get(Kind.CAFE).addAll(toLite(kakao.searchCategoryInRect("CE7", SB_RECT, 15, 3)));
-        map.get(Kind.FOOD).addAll(toLite(kakao.searchCategoryInRect("FD6", SB_RECT, 15, 3)));
-        map.get(Kind.PUB ).addAll(toLite(kakao.searchCategoryInRect("OL7", SB_RECT, 15, 2)));
-
-        // 관광/문화
-        List<KakaoPlaceDoc> culture = new ArrayList<>();
-        culture.addAll(kakao.searchCategoryInRect("AT4", SB_RECT, 15, 2));
-        culture.addAll(kakao.searchCategoryInRect("CT1", SB_RECT, 15, 2));
-
-        // 키워드: Walk/View/Shop/Activity
-        List<KakaoPlaceDoc> walkKw = new ArrayList<>();
-        walkKw.addAll(kakao.searchKeywordInRect("산책로", SB_RECT, 15, 2));
-        walkKw.addAll(kakao.searchKeywordInRect("성곽길", SB_RECT, 15, 1));
-        walkKw.addAll(kakao.searchKeywordInRect("성북천", SB_RECT, 15, 1));
-        walkKw.addAll(kakao.searchKeywordInRect("정릉천", SB_RECT, 15, 1));
-        walkKw.addAll(kakao.searchKeywordInRect("공원", SB_RECT, 15, 2));
-
-        List<KakaoPlaceDoc> viewKw = new ArrayList<>();
-        viewKw.addAll(kakao.searchKeywordInRect("전망", SB_RECT, 15, 1));
-        viewKw.addAll(kakao.searchKeywordInRect("야경", SB_RECT, 15, 1));
-        viewKw.addAll(kakao.searchKeywordInRect("루프탑", SB_RECT, 15, 1));
-
-        List<KakaoPlaceDoc> shopKw = new ArrayList<>();
-        shopKw.addAll(kakao.searchKeywordInRect("소품샵", SB_RECT, 15, 2));
-        shopKw.addAll(kakao.searchKeywordInRect("문구점", SB_RECT, 15, 1));
-        shopKw.addAll(kakao.searchKeywordInRect("빈티지샵", SB_RECT, 15, 1));
-        shopKw.addAll(kakao.searchKeywordInRect("서점", SB_RECT, 15, 1));
-        shopKw.addAll(kakao.searchKeywordInRect("플라워", SB_RECT, 15, 1));
-
-        List<KakaoPlaceDoc> actKw = new ArrayList<>();
-        for (String q : List.of("볼링장","다트","사격","방탈출","노래방","오락실","클라이밍","스크린골프","스크린야구","만화카페","탁구")) {
-            actKw.addAll(kakao.searchKeywordInRect(q, SB_RECT, 15, 1));
-        }
-
-        // 매핑
-        map.get(Kind.WALK).addAll(toLite(walkKw));
-        map.get(Kind.VIEW).addAll(toLite(viewKw));
-        map.get(Kind.SHOP).addAll(toLite(shopKw));
-        map.get(Kind.WALK).addAll(toLite(culture));
-        map.get(Kind.VIEW).addAll(toLite(culture));
-        map.get(Kind.ACTIVITY).addAll(toLite(actKw));
-
-        // 중복 제거 + 트림
-        map.replaceAll((k, v) -> dedupAndTrim(v, 80));
-        return map;
+    private int resolveCount(Integer requested) {
+        int c = (requested == null) ? defaultStopCount : requested;
+        return Math.max(1, Math.min(c, maxStopCount));
     }
 
-    private List<PlaceLite> toLite(List<KakaoPlaceDoc> docs) {
-        return docs.stream()
-                .filter(Objects::nonNull)
-                .map(d -> {
-                    double lat = parseDoubleSafe(d.getY());
-                    double lng = parseDoubleSafe(d.getX());
-                    return PlaceLite.builder()
-                            .id(d.getId())
-                            .name(nullToEmpty(d.getPlaceName()))
-                            .roadAddress(nullToEmpty(
-                                    (d.getRoadAddress()!=null && !d.getRoadAddress().isBlank())
-                                            ? d.getRoadAddress() : d.getAddressName()
-                            ))
-                            .lat(lat)
-                            .lng(lng)
-                            .kakaoUrl(d.getPlaceUrl())
-                            .phone(d.getPhone())
-                            .categoryGroupCode(d.getCategoryGroupCode())
-                            .categoryName(d.getCategoryName())
-                            .build();
-                })
-                .filter(p -> p.getRoadAddress()!=null && p.getRoadAddress().contains("성북구"))
-                .collect(Collectors.toList());
-    }
-
-    private List<PlaceLite> dedupAndTrim(List<PlaceLite> list, int limit) {
-        Map<String, PlaceLite> uniq = new LinkedHashMap<>();
-        for (PlaceLite p : list) uniq.putIfAbsent(p.getId(), p);
-        return uniq.values().stream().limit(limit).toList();
-    }
+    private void replaceLastWithDifferent(List<PlaceLite> picked, CompactPlacePool pool, Random rnd) {
+        BitSet used = pool.rowsOf(picked.stream().map(PlaceLite::getId).toList());
+        int free = pool.size() - used.cardinality();
+        if (free <= 0) return;
 
-    private static double[] centroidAll(Map<Kind, List<PlaceLite>> pools) {
-        List<PlaceLite> all = pools.values().stream().flatMap(List::stream).toList();
-        double lat = all.stream().mapToDouble(PlaceLite::getLat).average().orElse(37.607);
-        double lng = all.stream().mapToDouble(PlaceLite::getLng).average().orElse(127.02);
-        return new double[]{lat, lng};
+        // 안 쓴 행들 중 nth번째
+        int nth = rnd.nextInt(free);
+        int row = used.nextClearBit(0);
+        for (int i = 0; i < nth; i++) row = used.nextClearBit(row + 1);
+        picked.set(picked.size() - 1, pool.toLite(row));
     }
 
     private static String buildContentSummary(PlaceLite p) {
@@ -337,18 +225,6 @@ public class CourseService {
         return sb.isEmpty() ? "카카오 장소 정보" : sb.toString();
     }
 
-    private static String nullToEmpty(String s) { return s == null ? "" : s; }
-    private static double parseDoubleSafe(String s) { try { return Double.parseDouble(s); } catch (Exception e) { return 0.0; } }
-    private static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
-        double R = 6371.0;
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLng = Math.toRadians(lng2 - lng1);
-        double a = Math.sin(dLat/2)*Math.sin(dLat/2)
-                + Math.cos(Math.toRadians(lat1))*Math.cos(Math.toRadians(lat2))
-                * Math.sin(dLng/2)*Math.sin(dLng/2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
-        return R * c;
-    }
     private static double round1(double v) { return Math.round(v * 10.0) / 10.0; }
 
     private String normalizeEmotion(String in) {
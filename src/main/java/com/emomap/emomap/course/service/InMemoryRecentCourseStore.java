@@ -0,0 +1,40 @@
+package com.emomap.emomap.course.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/* 노드 하나짜리 기본 저장소. 클라이언트 수가 넘치면 가장 오래 안 쓴 클라이언트부터 버림(LRU) */
+@Component
+@ConditionalOnProperty(name = "app.course.history.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRecentCourseStore implements RecentCourseStore {
+
+    private final int historySize;
+    private final Map<String, Deque<List<String>>> byClient;
+
+    public InMemoryRecentCourseStore(@Value("${app.course.history.size:5}") int historySize,
+                                     @Value("${app.course.history.max-clients:10000}") int maxClients) {
+        this.historySize = Math.max(1, historySize);
+        this.byClient = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Deque<List<String>>> eldest) {
+                return size() > maxClients;
+            }
+        };
+    }
+
+    @Override
+    public synchronized List<List<String>> recent(String clientId) {
+        Deque<List<String>> q = byClient.get(clientId);
+        return q == null ? List.of() : List.copyOf(q);
+    }
+
+    @Override
+    public synchronized void record(String clientId, List<String> placeIds) {
+        Deque<List<String>> q = byClient.computeIfAbsent(clientId, k -> new ArrayDeque<>(historySize + 1));
+        q.addFirst(List.copyOf(placeIds));
+        while (q.size() > historySize) q.removeLast();
+    }
+}
@@ -0,0 +1,180 @@
+package com.emomap.emomap.course.service;
+
+import com.emomap.emomap.place.CompactPlacePool;
+import com.emomap.emomap.place.Geo;
+import com.emomap.emomap.place.PlaceAffinity;
+import com.emomap.emomap.place.entity.Place;
+import com.emomap.emomap.place.entity.PlaceEmotionScore;
+import com.emomap.emomap.place.repository.PlaceEmotionScoreRepository;
+import com.emomap.emomap.place.repository.PlaceRepository;
+import com.emomap.emomap.post.entity.Post;
+import com.emomap.emomap.post.repository.PostRepository;
+import com.emomap.emomap.post.service.PostService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * 장소별 감정 친화도 점수(place_emotion_scores) 관리.
+ * - 게시글 생성/태그 수정 이벤트 -> 반경 안 장소들에 (1 - 거리/반경) 만큼 증분(이전 태그는 빼고 새 태그는 더함)
+ * - 비어있으면 부팅 때, 그리고 매일 한 번 전체 재계산(새로 수집된 장소 반영)
+ * - 추천 요청에서는 안 읽음. 풀 스냅샷 만들 때 한 번 읽어서 PlaceAffinity로 들고 있음
+ * 증분/재계산은 단일 스레드에서 순서대로 돌려서 서로 안 꼬이게 함.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlaceAffinityService {
+
+    private final PlaceRepository placeRepository;
+    private final PlaceEmotionScoreRepository scoreRepository;
+    private final PostRepository postRepository;
+    private final PlatformTransactionManager txManager;
+
+    @Value("${app.course.affinity.radius-m:150}")     // 게시글이 이 거리 안 장소에만 점수를 줌
+    private double radiusM;
+
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "place-affinity");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /* ===== 스냅샷용 읽기 ===== */
+
+    public PlaceAffinity load(CompactPlacePool pool) {
+        if (pool.size() == 0) return PlaceAffinity.none();
+        List<String> ids = new ArrayList<>(pool.size());
+        for (int row = 0; row < pool.size(); row++) ids.add(pool.id(row));
+
+        Map<String, Map<String, Double>> raw = new HashMap<>();
+        for (PlaceEmotionScore s : scoreRepository.findByPlaceIdIn(ids)) {
+            raw.computeIfAbsent(s.getEmotion(), e -> new HashMap<>()).put(s.getPlaceId(), s.getScore());
+        }
+        return PlaceAffinity.of(pool, raw);
+    }
+
+    public String fingerprint(Collection<String> tileKeys) {
+        return scoreRepository.fingerprint(tileKeys);
+    }
+
+    /* ===== 증분 ===== */
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostEmotionsChanged(PostService.PostEmotionsChanged event) {
+        Set<String> removed = new HashSet<>(event.before());
+        removed.removeAll(event.after());
+        Set<String> added = new HashSet<>(event.after());
+        added.removeAll(event.before());
+        if (removed.isEmpty() && added.isEmpty()) return;
+
+        worker.execute(() -> {
+            try {
+                for (Map.Entry<String, Double> e : weightsAround(event.lat(), event.lng()).entrySet()) {
+                    for (String emotion : removed) scoreRepository.addScore(e.getKey(), emotion, -e.getValue());
+                    for (String emotion : added) scoreRepository.addScore(e.getKey(), emotion, e.getValue());
+                }
+            } catch (Exception ex) {
+                // 놓친 증분은 다음 전체 재계산 때 맞춰짐
+                log.warn("[AFFINITY] incremental update failed post={} cause={}", event.postId(), ex.toString());
+            }
+        });
+    }
+
+    /* ===== 전체 재계산 ===== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        worker.execute(() -> {
+            if (scoreRepository.count() == 0 && postRepository.count() > 0) rebuild();
+        });
+    }
+
+    @Scheduled(cron = "${app.course.affinity.rebuild-cron:0 30 4 * * *}")
+    public void scheduledRebuild() {
+        worker.execute(this::rebuild);
+    }
+
+    private void rebuild() {
+        long started = System.nanoTime();
+        try {
+            Map<String, Map<String, Double>> acc = new HashMap<>();   // 장소 id -> 감정 -> 점수
+            int page = 0, posts = 0;
+            Page<Post> batch;
+            do {
+                batch = postRepository.findAll(PageRequest.of(page++, REBUILD_PAGE_SIZE, Sort.by("id")));
+                for (Post p : batch) {
+                    List<String> tags = splitTags(p.getEmotions());
+                    if (tags.isEmpty()) continue;
+                    posts++;
+                    weightsAround(p.getLat(), p.getLng()).forEach((placeId, w) -> {
+                        Map<String, Double> byEmotion = acc.computeIfAbsent(placeId, k -> new HashMap<>());
+                        for (String t : tags) byEmotion.merge(t, w, Double::sum);
+                    });
+                }
+            } while (batch.hasNext());
+
+            LocalDateTime now = LocalDateTime.now();
+            List<PlaceEmotionScore> rows = new ArrayList<>();
+            acc.forEach((placeId, byEmotion) -> byEmotion.forEach((emotion, score) -> rows.add(
+                    PlaceEmotionScore.builder().placeId(placeId).emotion(emotion).score(score).updatedAt(now).build())));
+
+            // 통째로 교체(한 트랜잭션)
+            new TransactionTemplate(txManager).executeWithoutResult(tx -> {
+                scoreRepository.deleteAllInBatch();
+                scoreRepository.saveAll(rows);
+            });
+            log.info("[AFFINITY] rebuilt posts={} scores={} took={}ms",
+                    posts, rows.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("[AFFINITY] rebuild failed cause={}", e.toString());
+        }
+    }
+
+    /* ===== 공통 ===== */
+
+    // (lat,lng) 반경 안 장소 id -> 가중치(가까울수록 1에 가까움). 같은 장소가 여러 Kind/타일 행이어도 한 번만
+    private Map<String, Double> weightsAround(double lat, double lng) {
+        double dLat = radiusM / 111_320.0;
+        double dLng = radiusM / (111_320.0 * Math.max(0.1, Math.cos(Math.toRadians(lat))));
+        Map<String, Double> out = new HashMap<>();
+        for (Place pl : placeRepository.findByLatBetweenAndLngBetweenAndDeletedFalse(lat - dLat, lat + dLat, lng - dLng, lng + dLng)) {
+            double m = Geo.haversineKm(lat, lng, pl.getLat(), pl.getLng()) * 1000.0;
+            if (m < radiusM) out.putIfAbsent(pl.getPlaceId(), 1.0 - m / radiusM);
+        }
+        return out;
+    }
+
+    private static List<String> splitTags(String emotions) {
+        if (emotions == null || emotions.isBlank()) return List.of();
+        return Arrays.stream(emotions.split("[,\\s]+"))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+}
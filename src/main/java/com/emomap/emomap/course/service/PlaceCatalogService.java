@@ -0,0 +1,108 @@
+package com.emomap.emomap.course.service;
+
+import com.emomap.emomap.place.CompactPlacePool;
+import com.emomap.emomap.place.Kind;
+import com.emomap.emomap.place.PlaceLite;
+import com.emomap.emomap.place.entity.Place;
+import com.emomap.emomap.place.repository.PlaceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/* places 테이블 읽기/쓰기. 추천은 여기서 읽은 풀만 쓰고 카카오는 동기화 잡에서만 부름 */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PlaceCatalogService {
+
+    private final PlaceRepository placeRepository;
+
+    public record SyncResult(int inserted, int updated, int tombstoned) {}
+
+    // 여러 타일을 합쳐서 압축 풀로(타일 경계/여러 Kind에 걸린 장소는 행 하나). PlaceLite는 안 만듦
+    @Transactional(readOnly = true)
+    public CompactPlacePool loadPool(Collection<String> tileKeys) {
+        CompactPlacePool.Builder b = CompactPlacePool.builder();
+        for (Place p : placeRepository.findByAreaInAndDeletedFalseOrderByKindAscSortOrderAsc(tileKeys)) {
+            b.add(p.getPlaceId(), p.getName(), p.getRoadAddress(), p.getLat(), p.getLng(),
+                    p.getKakaoUrl(), p.getPhone(), p.getCategoryGroupCode(), p.getCategoryName(), p.getKind());
+        }
+        return b.build();
+    }
+
+    // 풀 내용이 바뀌었는지 싸게 확인(loadPool 전에)
+    @Transactional(readOnly = true)
+    public String fingerprint(Collection<String> tileKeys) {
+        return placeRepository.fingerprint(tileKeys);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean hasPlaces(String tileKey) {
+        return placeRepository.existsByAreaAndDeletedFalse(tileKey);
+    }
+
+    // 새로 수집한 타일 풀로 upsert 하고, 이번에 안 나온 장소는 톰스톤 처리
+    @Transactional
+    public SyncResult upsert(String area, Map<Kind, List<PlaceLite>> pools) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Place> existing = new HashMap<>();
+        for (Place p : placeRepository.findByArea(area)) existing.put(key(p.getPlaceId(), p.getKind()), p);
+
+        int inserted = 0, updated = 0, tombstoned = 0;
+        Set<String> seen = new HashSet<>();
+        List<Place> toSave = new ArrayList<>();
+
+        for (Map.Entry<Kind, List<PlaceLite>> e : pools.entrySet()) {
+            List<PlaceLite> list = e.getValue();
+            for (int i = 0; i < list.size(); i++) {
+                PlaceLite lite = list.get(i);
+                String key = key(lite.getId(), e.getKey());
+                if (!seen.add(key)) continue;
+
+                Place p = existing.get(key);
+                if (p == null) {
+                    p = Place.builder().placeId(lite.getId()).area(area).kind(e.getKey()).build();
+                    inserted++;
+                } else {
+                    updated++;
+                }
+                apply(p, lite);
+                p.setSortOrder(i);
+                p.setLastSeen(now);
+                p.setDeleted(false);
+                toSave.add(p);
+            }
+        }
+
+        for (Map.Entry<String, Place> e : existing.entrySet()) {
+            Place p = e.getValue();
+            if (!seen.contains(e.getKey()) && !p.isDeleted()) {
+                p.setDeleted(true);
+                toSave.add(p);
+                tombstoned++;
+            }
+        }
+
+        placeRepository.saveAll(toSave);
+        return new SyncResult(inserted, updated, tombstoned);
+    }
+
+    private static void apply(Place p, PlaceLite lite) {
+        p.setName(lite.getName());
+        p.setRoadAddress(lite.getRoadAddress());
+        p.setLat(lite.getLat());
+        p.setLng(lite.getLng());
+        p.setKakaoUrl(lite.getKakaoUrl());
+        p.setPhone(lite.getPhone());
+        p.setCategoryGroupCode(lite.getCategoryGroupCode());
+        p.setCategoryName(lite.getCategoryName());
+    }
+
+    private static String key(String placeId, Kind kind) {
+        return placeId + "|" + kind.name();
+    }
+}
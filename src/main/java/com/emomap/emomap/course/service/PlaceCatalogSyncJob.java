@@ -0,0 +1,79 @@
+package com.emomap.emomap.course.service;
+
+import com.emomap.emomap.place.Kind;
+import com.emomap.emomap.place.PlaceLite;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/* 주기적으로 카카오에서 풀을 다시 긁어 places 테이블에 반영하는 잡 */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlaceCatalogSyncJob {
+
+    private final PlacePoolLoader loader;
+    private final CourseAreas areas;
+    private final PlaceCatalogService catalog;
+    private final ApplicationEventPublisher events;
+
+    // 동기화 끝나면 캐시가 이 이벤트 받고 DB에서 다시 읽음
+    public record CatalogSynced(String area) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        // 처음 띄운 DB라 비어있는 지역만 바로 한 번 채움
+        CompletableFuture.runAsync(() -> {
+            for (CourseAreas.Area area : areas.all()) {
+                boolean synced = false;
+                for (CourseAreas.Tile tile : area.tiles()) {
+                    if (!catalog.hasPlaces(tile.key())) synced |= syncTile(area.name(), tile);
+                }
+                if (synced) events.publishEvent(new CatalogSynced(area.name()));
+            }
+        });
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.place.sync.interval-ms:21600000}",
+            initialDelayString = "${app.place.sync.interval-ms:21600000}"
+    )
+    public void syncAll() {
+        for (CourseAreas.Area area : areas.all()) sync(area);
+    }
+
+    public void sync(CourseAreas.Area area) {
+        boolean synced = false;
+        for (CourseAreas.Tile tile : area.tiles()) synced |= syncTile(area.name(), tile);
+        if (synced) events.publishEvent(new CatalogSynced(area.name()));
+    }
+
+    // 타일 단위로 수집/저장(한 타일이 실패해도 나머지 타일은 그대로 반영)
+    private boolean syncTile(String area, CourseAreas.Tile tile) {
+        long started = System.nanoTime();
+        try {
+            Map<Kind, List<PlaceLite>> pools = loader.load(area, tile);
+            int total = pools.values().stream().mapToInt(List::size).sum();
+            if (total == 0) {
+                // 카카오 장애로 빈 결과면 전부 톰스톤 되는 걸 막음
+                log.warn("[PLACE-SYNC] empty result tile={} -> skip", tile.key());
+                return false;
+            }
+            PlaceCatalogService.SyncResult r = catalog.upsert(tile.key(), pools);
+            log.info("[PLACE-SYNC] tile={} inserted={} updated={} tombstoned={} took={}ms",
+                    tile.key(), r.inserted(), r.updated(), r.tombstoned(), (System.nanoTime() - started) / 1_000_000);
+            return true;
+        } catch (Exception e) {
+            log.warn("[PLACE-SYNC] failed tile={} cause={}", tile.key(), e.toString());
+            return false;
+        }
+    }
+}
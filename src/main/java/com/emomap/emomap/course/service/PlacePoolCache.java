@@ -0,0 +1,202 @@
+package com.emomap.emomap.course.service;
+
+import com.emomap.emomap.place.CompactPlacePool;
+import com.emomap.emomap.place.PlaceAffinity;
+import com.emomap.emomap.place.PlaceSpatialIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * 지역별 후보 풀 스냅샷 캐시(places 테이블의 메모리 사본).
+ * - 요청 경로에서는 마지막으로 성공한 스냅샷을 그대로 씀(stale-while-revalidate)
+ * - 갱신은 스케줄러/백그라운드/동기화 완료 이벤트에서만, 실패하면 이전 스냅샷 유지
+ * - 최초 요청처럼 스냅샷이 아예 없을 때만 DB에서 동기 로딩(카카오는 안 부름)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlacePoolCache {
+
+    private final CourseAreas areas;
+    private final PlaceCatalogService catalog;
+    private final PlaceAffinityService affinityService;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher events;
+
+    @Value("${app.course.pool.max-age-ms:900000}")      // 이 시간 지나면 읽을 때 백그라운드 갱신 트리거
+    private long maxAgeMs;
+
+    @Value("${app.course.pool.cold-retry-ms:5000}")     // 콜드 로딩 실패 후 이 시간 동안은 다시 안 부르고 빈 스냅샷
+    private long coldRetryMs;
+
+    // 풀은 열 단위 배열(CompactPlacePool), 인덱스/감정 친화도는 스냅샷이 바뀔 때 한 번만 만듦
+    public record Snapshot(CompactPlacePool pool, PlaceSpatialIndex index, PlaceAffinity affinity, Instant loadedAt) {
+        public int totalCount() { return pool.size(); }
+    }
+
+    // 새 스냅샷이 올라가면 발행(코스 뱅크 재생성 등)
+    public record SnapshotUpdated(String area, Snapshot snapshot) {}
+
+    // 지역별 마지막으로 DB와 같다고 확인한 시각 + 그때 지문(places/점수 행 수, 마지막 수정 시각)
+    private record Checked(String fingerprint, Instant at) {}
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, Checked> checked = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<Snapshot>> coldLoads = new ConcurrentHashMap<>();   // 지역별 single-flight
+    private final Map<String, Instant> coldRetryAt = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "place-pool-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public Snapshot snapshot(String area) {
+        Snapshot s = snapshots.get(area);
+        if (s == null) return coldLoad(area);
+        if (Duration.between(checkedAt(area, s), Instant.now()).toMillis() > maxAgeMs) {
+            refreshAsync(area);
+        }
+        return s;
+    }
+
+    /*
+     * 콜드 스타트: 지역마다 첫 요청 하나만 로딩하고 같은 지역 요청은 그 결과를 기다림(다른 지역은 안 막힘).
+     * 실패하면 cold-retry-ms 동안은 바로 빈 스냅샷(DB/카카오 장애 때 요청마다 줄 서서 다시 로딩하지 않게)
+     */
+    private Snapshot coldLoad(String area) {
+        Instant retryAt = coldRetryAt.get(area);
+        if (retryAt != null && Instant.now().isBefore(retryAt)) return emptySnapshot();
+
+        CompletableFuture<Snapshot> mine = new CompletableFuture<>();
+        CompletableFuture<Snapshot> running = coldLoads.putIfAbsent(area, mine);
+        if (running != null) return running.join();
+        try {
+            refresh(area);   // 실패는 안에서 잡고 스냅샷을 안 올림
+            Snapshot s = snapshots.get(area);
+            if (s == null) coldRetryAt.put(area, Instant.now().plusMillis(coldRetryMs));
+            else coldRetryAt.remove(area);
+            mine.complete(s == null ? emptySnapshot() : s);
+        } catch (RuntimeException e) {
+            coldRetryAt.put(area, Instant.now().plusMillis(coldRetryMs));
+            mine.complete(emptySnapshot());
+        } finally {
+            coldLoads.remove(area, mine);
+        }
+        return mine.join();
+    }
+
+    /* ===== 갱신 ===== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmup() {
+        refreshAsync(areas.defaultArea());
+    }
+
+    @EventListener
+    public void onCatalogSynced(PlaceCatalogSyncJob.CatalogSynced event) {
+        refreshAsync(event.area());
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.course.pool.refresh-ms:600000}",
+            initialDelayString = "${app.course.pool.refresh-ms:600000}"
+    )
+    public void refreshAll() {
+        for (String area : List.copyOf(snapshots.keySet())) refresh(area);
+    }
+
+    public void refreshAsync(String area) {
+        if (!refreshing.add(area)) return; // 이미 갱신 중
+        refreshExecutor.execute(() -> {
+            try { refresh(area); } finally { refreshing.remove(area); }
+        });
+    }
+
+    public void refresh(String area) {
+        long started = System.nanoTime();
+        try {
+            CourseAreas.Area def = areas.find(area)
+                    .orElseThrow(() -> new IllegalArgumentException("지원하지 않는 지역: " + area));
+            // DB 내용이 그대로면 스냅샷(과 그걸로 만든 코스 뱅크)을 그대로 두고 확인 시각만 갱신
+            String fingerprint = catalog.fingerprint(def.tileKeys()) + "|" + affinityService.fingerprint(def.tileKeys());
+            Checked last = checked.get(area);
+            if (last != null && last.fingerprint().equals(fingerprint) && snapshots.containsKey(area)) {
+                checked.put(area, new Checked(fingerprint, Instant.now()));
+                meterRegistry.counter("course.pool.refresh.unchanged", "area", area).increment();
+                log.debug("[POOL] unchanged area={} -> keep snapshot", area);
+                return;
+            }
+
+            CompactPlacePool pool = catalog.loadPool(def.tileKeys());
+            Snapshot next = new Snapshot(pool, PlaceSpatialIndex.build(pool), affinityService.load(pool), Instant.now());
+            if (next.totalCount() == 0 && snapshots.containsKey(area)) {
+                // DB 장애 등으로 빈 결과면 기존 스냅샷 유지
+                log.warn("[POOL] empty refresh for area={} -> keep last snapshot", area);
+                failureCounter(area).increment();
+                return;
+            }
+            checked.put(area, new Checked(fingerprint, Instant.now()));
+            if (snapshots.put(area, next) == null) registerAgeGauge(area);
+            events.publishEvent(new SnapshotUpdated(area, next));
+            log.info("[POOL] refreshed area={}, total={}, took={}ms",
+                    area, next.totalCount(), (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            failureCounter(area).increment();
+            log.warn("[POOL] refresh failed area={} -> keep last snapshot. cause={}", area, e.toString());
+        }
+    }
+
+    /* ===== 메트릭 ===== */
+
+    private void registerAgeGauge(String area) {
+        Gauge.builder("course.pool.snapshot.age", this, c -> c.ageSeconds(area))
+                .tag("area", area)
+                .baseUnit("seconds")
+                .description("후보 풀 스냅샷이 DB와 같다고 마지막으로 확인된 뒤 지난 시간")
+                .register(meterRegistry);
+    }
+
+    private Counter failureCounter(String area) {
+        return meterRegistry.counter("course.pool.refresh.failures", "area", area);
+    }
+
+    private double ageSeconds(String area) {
+        Snapshot s = snapshots.get(area);
+        if (s == null) return Double.NaN;
+        return Duration.between(checkedAt(area, s), Instant.now()).toMillis() / 1000.0;
+    }
+
+    private Instant checkedAt(String area, Snapshot s) {
+        Checked c = checked.get(area);
+        return c == null ? s.loadedAt() : c.at();
+    }
+
+    private static Snapshot emptySnapshot() {
+        CompactPlacePool empty = CompactPlacePool.empty();
+        return new Snapshot(empty, PlaceSpatialIndex.build(empty), PlaceAffinity.none(), Instant.EPOCH);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,143 @@
+package com.emomap.emomap.course.service;
+
+import com.emomap.emomap.place.KakaoPlaceClient;
+import com.emomap.emomap.place.KakaoPlaceClient.KakaoPlaceDoc;
+import com.emomap.emomap.place.KakaoPlaceClient.Rect;
+import com.emomap.emomap.place.Kind;
+import com.emomap.emomap.place.PlaceLite;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/* 지역 하나의 Kind별 후보 풀을 Kakao에서 긁어오는 역할(카탈로그 동기화 잡에서만 호출됨) */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlacePoolLoader {
+
+    private final KakaoPlaceClient kakao;
+
+    @Value("${app.course.pool.fetch-concurrency:8}")   // 동시에 날릴 카카오 검색 수
+    private int fetchConcurrency;
+
+    private static final int TRIM_PER_KIND = 80;
+
+    // 수집 쿼리 하나: 카테고리 코드 or 키워드 -> 들어갈 Kind들
+    record PoolQuery(boolean category, String value, int pages, List<Kind> kinds) {
+        static PoolQuery category(String code, int pages, Kind... kinds) { return new PoolQuery(true, code, pages, List.of(kinds)); }
+        static PoolQuery keyword(String q, int pages, Kind... kinds) { return new PoolQuery(false, q, pages, List.of(kinds)); }
+        PoolQuery withPages(int p) { return new PoolQuery(category, value, p, kinds); }
+    }
+
+    // 타일 하나 수집. area는 주소 필터(해당 구 주소만 남김)
+    public Map<Kind, List<PlaceLite>> load(String area, CourseAreas.Tile tile) {
+        Rect rect = tile.rect();
+        List<PoolQuery> plan = tile.plan();
+
+        long started = System.nanoTime();
+        // 쿼리는 동시에 날리고(최대 fetchConcurrency개), 결과는 계획 순서대로 받음. 1이면 예전처럼 순차 호출
+        KindFill fill = new KindFill();
+        List<List<PlaceLite>> results = Flux.range(0, plan.size())
+                .flatMapSequential(i -> search(i, plan.get(i), rect, area, fill), Math.max(1, fetchConcurrency))
+                .collectList()
+                .block();
+
+        Map<Kind, List<PlaceLite>> map = new EnumMap<>(Kind.class);
+        for (Kind k : Kind.values()) map.put(k, new ArrayList<>());
+
+        for (int i = 0; i < plan.size(); i++) {
+            for (Kind k : plan.get(i).kinds()) map.get(k).addAll(results.get(i));
+        }
+
+        // 중복 제거 + 트림
+        map.replaceAll((k, v) -> dedupAndTrim(v, TRIM_PER_KIND));
+        log.info("[POOL] loaded tile={} queries={} concurrency={} took={}ms",
+                tile.key(), plan.size(), fetchConcurrency, (System.nanoTime() - started) / 1_000_000);
+        return map;
+    }
+
+    /*
+     * 쿼리 하나(계획에서 index번째)를 스트리밍으로: 페이지 오는 대로 해당 구 주소만 남기고 PlaceLite로.
+     * 이 쿼리의 모든 Kind가 계획상 앞 쿼리들 + 이 쿼리가 지금까지 받은 것만으로 TRIM_PER_KIND개 찼으면 다음 페이지는 안 부름
+     */
+    private Mono<List<PlaceLite>> search(int index, PoolQuery q, Rect rect, String area, KindFill fill) {
+        // 페이지 하나 거를 때 통과한 것을 바로 기록해야 다음 페이지 부르기 전에 반영됨
+        Predicate<KakaoPlaceDoc> accept = d -> {
+            if (d.getId() == null || !inArea(d, area)) return false;   // id 없는 문서는 그것만 버림
+            fill.add(index, q.kinds(), d.getId());
+            return true;
+        };
+        BooleanSupplier enough = () -> fill.full(index, q.kinds(), TRIM_PER_KIND);
+        Flux<KakaoPlaceDoc> docs = q.category()
+                ? kakao.streamCategoryInRect(q.value(), rect, 15, q.pages(), accept, enough)
+                : kakao.streamKeywordInRect(q.value(), rect, 15, q.pages(), accept, enough);
+        return docs.filter(d -> d.getId() != null)   // distinct는 null 키면 NPE로 지역 로딩 전체가 실패
+                .distinct(KakaoPlaceDoc::getId)
+                .map(PlacePoolLoader::toLite)
+                .collectList();
+    }
+
+    /*
+     * Kind별로 장소 id -> 그 장소를 처음 통과시킨 쿼리 번호(계획 순서).
+     * Kind 병합은 계획 순서 + 중복 제거 후 앞에서 TRIM_PER_KIND개라, 쿼리 0..i가 이미 그만큼 채웠으면
+     * i의 뒤 페이지는 그 뒤로 붙어서 안 쓰임. 앞 쿼리가 동시에 더 받아와도 i의 것은 뒤로 밀리기만 하므로 순차 수집과 결과 같음
+     */
+    static final class KindFill {
+        private final Map<Kind, Map<String, Integer>> firstSeen = new EnumMap<>(Kind.class);
+
+        synchronized void add(int query, List<Kind> kinds, String id) {
+            if (id == null) return;
+            for (Kind k : kinds) firstSeen.computeIfAbsent(k, x -> new HashMap<>()).merge(id, query, Math::min);
+        }
+
+        synchronized boolean full(int query, List<Kind> kinds, int limit) {
+            for (Kind k : kinds) {
+                Map<String, Integer> seen = firstSeen.get(k);
+                if (seen == null) return false;
+                long filled = seen.values().stream().filter(i -> i <= query).count();
+                if (filled < limit) return false;
+            }
+            return true;
+        }
+    }
+
+    // 벤치마크(src/jmh)에서도 부르려고 package-private
+    static boolean inArea(KakaoPlaceDoc d, String area) {
+        String addr = roadOrJibun(d);
+        return addr != null && addr.contains(area);
+    }
+
+    static PlaceLite toLite(KakaoPlaceDoc d) {
+        return PlaceLite.builder()
+                .id(d.getId())
+                .name(nullToEmpty(d.getPlaceName()))
+                .roadAddress(nullToEmpty(roadOrJibun(d)))
+                .lat(parseDoubleSafe(d.getY()))
+                .lng(parseDoubleSafe(d.getX()))
+                .kakaoUrl(d.getPlaceUrl())
+                .phone(d.getPhone())
+                .categoryGroupCode(d.getCategoryGroupCode())
+                .categoryName(d.getCategoryName())
+                .build();
+    }
+
+    private static String roadOrJibun(KakaoPlaceDoc d) {
+        return (d.getRoadAddress() != null && !d.getRoadAddress().isBlank()) ? d.getRoadAddress() : d.getAddressName();
+    }
+
+    static List<PlaceLite> dedupAndTrim(List<PlaceLite> list, int limit) {
+        Map<String, PlaceLite> uniq = new LinkedHashMap<>();
+        for (PlaceLite p : list) uniq.putIfAbsent(p.getId(), p);
+        return uniq.values().stream().limit(limit).toList();
+    }
+
+    private static String nullToEmpty(String s) { return s == null ? "" : s; }
+    private static double parseDoubleSafe(String s) { try { return Double.parseDouble(s); } catch (Exception e) { return 0.0; } }
+}
@@ -0,0 +1,15 @@
+package com.emomap.emomap.course.service;
+
+import java.util.List;
+
+/*
+ * 클라이언트(기기/세션/유저 id)별 최근에 내려준 코스 기록.
+ * app.course.history.store=memory(단일 노드, 기본) | redis(여러 노드 공유)
+ */
+public interface RecentCourseStore {
+
+    // 최근 코스들(최신순, 최대 K개). 각 코스는 장소 id 목록
+    List<List<String>> recent(String clientId);
+
+    void record(String clientId, List<String> placeIds);
+}
@@ -0,0 +1,59 @@
+package com.emomap.emomap.course.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/* 여러 노드가 같이 쓰는 저장소. 클라이언트마다 리스트 하나(LPUSH + LTRIM), TTL 지나면 Redis가 정리 */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.course.history.store", havingValue = "redis")
+public class RedisRecentCourseStore implements RecentCourseStore {
+
+    private static final String KEY_PREFIX = "course:recent:";
+
+    private final StringRedisTemplate redis;
+    private final int historySize;
+    private final Duration ttl;
+
+    public RedisRecentCourseStore(StringRedisTemplate redis,
+                                  @Value("${app.course.history.size:5}") int historySize,
+                                  @Value("${app.course.history.ttl-hours:24}") long ttlHours) {
+        this.redis = redis;
+        this.historySize = Math.max(1, historySize);
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    @Override
+    public List<List<String>> recent(String clientId) {
+        try {
+            List<String> rows = redis.opsForList().range(KEY_PREFIX + clientId, 0, historySize - 1);
+            if (rows == null) return List.of();
+            return rows.stream()
+                    .map(r -> r.isEmpty() ? List.<String>of() : Arrays.asList(r.split(",")))
+                    .toList();
+        } catch (Exception e) {
+            // Redis 문제로 추천이 막히면 안 됨 -> 기록 없는 것처럼
+            log.warn("[HISTORY] redis read failed client={} cause={}", clientId, e.toString());
+            return List.of();
+        }
+    }
+
+    @Override
+    public void record(String clientId, List<String> placeIds) {
+        String key = KEY_PREFIX + clientId;
+        try {
+            redis.opsForList().leftPush(key, String.join(",", placeIds));
+            redis.opsForList().trim(key, 0, historySize - 1);
+            redis.expire(key, ttl);
+        } catch (Exception e) {
+            log.warn("[HISTORY] redis write failed client={} cause={}", clientId, e.toString());
+        }
+    }
+}
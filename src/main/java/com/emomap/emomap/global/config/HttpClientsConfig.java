@@ -10,19 +10,21 @@ import org.springframework.web.reactive.function.client.WebClient; // HTTP 클
 public class HttpClientsConfig {
 
     @Bean
-    public WebClient geminiClient(@Value("${app.gemini.api-key}") String apiKey) {
+    public WebClient geminiClient(@Value("${app.gemini.api-key}") String apiKey, HttpRecordReplay recordReplay) {
         // Gemini API 호출 시 key를 queryParam으로 붙이기 위해서 baseUrl에는 key까지 포함함
         return WebClient.builder()
                 .baseUrl("https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent?key=" + apiKey)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE) // JSON 요청
+                .filter(recordReplay.filter("gemini"))  // 녹화/재생(app.http.record-replay.mode)
                 .build();
     }
 
     @Bean                                               // kakaoLocalClient
-    public WebClient kakaoLocalClient(@Value("${app.kakao.rest-key}") String key) { // 카카오 REST key
+    public WebClient kakaoLocalClient(@Value("${app.kakao.rest-key}") String key, HttpRecordReplay recordReplay) { // 카카오 REST key
         return WebClient.builder()
                 .baseUrl("https://dapi.kakao.com")      // 카카오 로컬 API 기본 URL
                 .defaultHeader(HttpHeaders.AUTHORIZATION, "KakaoAK " + key) // 인증 헤더
+                .filter(recordReplay.filter("kakao"))   // 녹화/재생(app.http.record-replay.mode)
                 .build();
     }
 }
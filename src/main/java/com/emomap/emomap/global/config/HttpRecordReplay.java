@@ -0,0 +1,238 @@
+package com.emomap.emomap.global.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.*;
+import org.springframework.http.client.reactive.AbstractClientHttpRequest;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * 외부 API(카카오/Gemini) 녹화/재생 필터. WebClient 빈에 붙여서 씀.
+ * - off(기본): 그대로 통과
+ * - record: 실제 호출하고 요청->응답을 dir/{client}/{sha256}.json 으로 저장
+ * - replay: 네트워크 안 타고 저장된 응답을 돌려줌(지연/에러율 주입 가능)
+ * 키 = 메서드 + 경로 + 정렬된 쿼리(key 파라미터 제외) + 요청 바디. API 키는 파일에 안 남김.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HttpRecordReplay {
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.http.record-replay.mode:off}")
+    private String modeName;
+
+    @Value("${app.http.record-replay.dir:./http-corpus}")
+    private String dir;
+
+    @Value("${app.http.record-replay.latency-ms:0}")         // 재생 응답마다 고정 지연
+    private long latencyMs;
+
+    @Value("${app.http.record-replay.latency-jitter-ms:0}")  // 0~jitter 랜덤 추가 지연
+    private long latencyJitterMs;
+
+    @Value("${app.http.record-replay.error-rate:0.0}")       // 이 확률로 에러 응답
+    private double errorRate;
+
+    @Value("${app.http.record-replay.error-status:503}")
+    private int errorStatus;
+
+    private Mode mode = Mode.OFF;
+    private Path root;
+
+    // 파일 한 개 = 요청/응답 한 쌍
+    public record Exchange(String method, String uri, String requestBody,
+                           int status, String contentType, String body) {}
+
+    private static final List<HttpMessageWriter<?>> WRITERS = ExchangeStrategies.withDefaults().messageWriters();
+
+    @PostConstruct
+    void init() {
+        mode = Mode.valueOf(modeName.trim().toUpperCase(Locale.ROOT));
+        root = Paths.get(dir).toAbsolutePath().normalize();
+        if (mode != Mode.OFF) log.info("[HTTP-RR] mode={} dir={}", mode, root);
+    }
+
+    public ExchangeFilterFunction filter(String client) {
+        return (request, next) -> switch (mode) {
+            case OFF -> next.exchange(request);
+            case RECORD -> captureBody(request).flatMap(body -> record(client, request, body, next));
+            case REPLAY -> captureBody(request).flatMap(body -> replay(client, request, body));
+        };
+    }
+
+    /* ===== record ===== */
+
+    private Mono<ClientResponse> record(String client, ClientRequest request, String body, ExchangeFunction next) {
+        return next.exchange(request).flatMap(resp -> resp.bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> {
+                    String contentType = resp.headers().contentType().map(MediaType::toString).orElse(null);
+                    Exchange ex = new Exchange(request.method().name(), safeUri(request.url()), body,
+                            resp.statusCode().value(), contentType, new String(bytes, StandardCharsets.UTF_8));
+                    // 파일 쓰기는 블로킹이라 이벤트 루프 말고 bounded elastic에서
+                    return Mono.fromRunnable(() -> write(client, key(request, body), ex))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            // 바디는 이미 읽었으니 같은 내용으로 다시 만들어서 넘김
+                            .then(Mono.fromSupplier(() -> toResponse(ex)));
+                }));
+    }
+
+    private void write(String client, String key, Exchange ex) {
+        try {
+            Path file = fileFor(client, key);
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), key, ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), ex);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            meterRegistry.counter("http.record_replay", "client", client, "result", "recorded").increment();
+        } catch (IOException e) {
+            // 녹화 실패해도 실제 호출 결과는 그대로 돌려줌
+            log.warn("[HTTP-RR] record failed client={} cause={}", client, e.toString());
+        }
+    }
+
+    /* ===== replay ===== */
+
+    private Mono<ClientResponse> replay(String client, ClientRequest request, String body) {
+        Mono<ClientResponse> resp = Mono.fromCallable(() -> {
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                meterRegistry.counter("http.record_replay", "client", client, "result", "injected_error").increment();
+                return ClientResponse.create(HttpStatusCode.valueOf(errorStatus)).build();
+            }
+            Path file = fileFor(client, key(request, body));
+            if (!Files.exists(file)) {
+                meterRegistry.counter("http.record_replay", "client", client, "result", "miss").increment();
+                log.warn("[HTTP-RR] replay miss client={} {} {}", client, request.method(), safeUri(request.url()));
+                return ClientResponse.create(HttpStatus.NOT_FOUND).build();
+            }
+            meterRegistry.counter("http.record_replay", "client", client, "result", "hit").increment();
+            return toResponse(objectMapper.readValue(file.toFile(), Exchange.class));
+        }).subscribeOn(Schedulers.boundedElastic());   // 파일 읽기도 이벤트 루프 밖에서
+
+        long delay = latencyMs + (latencyJitterMs > 0 ? ThreadLocalRandom.current().nextLong(latencyJitterMs + 1) : 0);
+        return delay > 0 ? Mono.delay(Duration.ofMillis(delay)).then(resp) : resp;
+    }
+
+    private static ClientResponse toResponse(Exchange ex) {
+        ClientResponse.Builder b = ClientResponse.create(HttpStatusCode.valueOf(ex.status()));
+        if (ex.contentType() != null) b.header(HttpHeaders.CONTENT_TYPE, ex.contentType());
+        return b.body(ex.body() == null ? "" : ex.body()).build();
+    }
+
+    /* ===== 키 ===== */
+
+    private Path fileFor(String client, String key) {
+        return root.resolve(client).resolve(key + ".json");
+    }
+
+    private static String key(ClientRequest request, String body) {
+        String raw = request.method().name() + " " + safeUri(request.url()) + "\n" + body;
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(d);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // key 파라미터(Gemini API 키) 빼고, 쿼리는 이름순으로
+    private static String safeUri(URI uri) {
+        var params = new TreeMap<>(UriComponentsBuilder.fromUri(uri).build().getQueryParams());
+        params.remove("key");
+        StringBuilder sb = new StringBuilder(uri.getPath() == null ? "" : uri.getPath());
+        String sep = "?";
+        for (var e : params.entrySet()) {
+            for (String v : e.getValue()) {
+                sb.append(sep).append(e.getKey()).append('=').append(v == null ? "" : v);
+                sep = "&";
+            }
+        }
+        return sb.toString();
+    }
+
+    /* ===== 요청 바디 캡처(BodyInserter를 메모리 요청에 한 번 써봄) ===== */
+
+    private static Mono<String> captureBody(ClientRequest request) {
+        CapturingRequest out = new CapturingRequest(request.method(), request.url());
+        return request.body().insert(out, new BodyInserter.Context() {
+                    @Override public List<HttpMessageWriter<?>> messageWriters() { return WRITERS; }
+                    @Override public Optional<ServerHttpRequest> serverRequest() { return Optional.empty(); }
+                    @Override public Map<String, Object> hints() { return Map.of(); }
+                })
+                .then(Mono.fromSupplier(out::body));
+    }
+
+    private static final class CapturingRequest extends AbstractClientHttpRequest {
+
+        private final HttpMethod method;
+        private final URI uri;
+        private final DataBufferFactory factory = DefaultDataBufferFactory.sharedInstance;
+        private String body = "";
+
+        CapturingRequest(HttpMethod method, URI uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+
+        String body() { return body; }
+
+        @Override public HttpMethod getMethod() { return method; }
+        @Override public URI getURI() { return uri; }
+        @Override public DataBufferFactory bufferFactory() { return factory; }
+        @Override public <T> T getNativeRequest() { return null; }   // 바디만 받는 메모리 요청이라 밑에 실제 요청 없음
+        @Override protected void applyHeaders() {}
+        @Override protected void applyCookies() {}
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> publisher) {
+            return DataBufferUtils.join(publisher)
+                    .doOnNext(buf -> {
+                        body = buf.toString(StandardCharsets.UTF_8);
+                        DataBufferUtils.release(buf);
+                    })
+                    .then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> publisher) {
+            return writeWith(Flux.from(publisher).flatMap(p -> p));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.emomap.emomap.place;
+
+import java.util.*;
+
+/*
+ * 후보 풀을 열 단위 배열로 들고 있는 불변 구조(struct-of-arrays).
+ * - 장소 하나 = 행 번호(row). 같은 장소가 여러 Kind에 있어도 행은 하나, kinds는 비트마스크(1 << ordinal)
+ * - 좌표는 double[], 카테고리 문자열은 사전 인코딩(int -> dict)
+ * - 거리 계산/선택은 행 번호로만 하고, PlaceLite는 최종 고른 장소만 toLite로 만듦
+ */
+public final class CompactPlacePool {
+
+    private static final CompactPlacePool EMPTY = new Builder().build();
+
+    private final int size;
+    private final String[] ids;
+    private final String[] names;
+    private final String[] roadAddresses;
+    private final String[] kakaoUrls;
+    private final String[] phones;
+    private final double[] lat;
+    private final double[] lng;
+    private final int[] kinds;
+    private final int[] groupCodes;      // dict 인덱스, -1 = null
+    private final int[] categoryNames;   // dict 인덱스, -1 = null
+    private final String[] dict;
+    private final int[][] rowsByKind;    // Kind ordinal -> 행 번호들(넣은 순서)
+    private final Map<String, Integer> rowById;
+
+    private CompactPlacePool(Builder b) {
+        this.size = b.size;
+        this.ids = b.ids.toArray(new String[0]);
+        this.names = b.names.toArray(new String[0]);
+        this.roadAddresses = b.roadAddresses.toArray(new String[0]);
+        this.kakaoUrls = b.kakaoUrls.toArray(new String[0]);
+        this.phones = b.phones.toArray(new String[0]);
+        this.lat = Arrays.copyOf(b.lat, b.size);
+        this.lng = Arrays.copyOf(b.lng, b.size);
+        this.kinds = Arrays.copyOf(b.kinds, b.size);
+        this.groupCodes = Arrays.copyOf(b.groupCodes, b.size);
+        this.categoryNames = Arrays.copyOf(b.categoryNames, b.size);
+        this.dict = b.dict.toArray(new String[0]);
+        this.rowsByKind = new int[Kind.values().length][];
+        for (int k = 0; k < rowsByKind.length; k++) {
+            List<Integer> rows = b.rowsByKind.get(k);
+            rowsByKind[k] = rows.stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.rowById = Map.copyOf(b.rowById);
+    }
+
+    public static CompactPlacePool empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // Kind별 PlaceLite 목록 -> 압축 풀(카카오 수집 결과, 벤치마크용)
+    public static CompactPlacePool from(Map<Kind, List<PlaceLite>> pools) {
+        Builder b = new Builder();
+        pools.forEach((kind, list) -> {
+            for (PlaceLite p : list) b.add(p, kind);
+        });
+        return b.build();
+    }
+
+    /* ===== 조회 ===== */
+
+    public int size() { return size; }
+
+    public double lat(int row) { return lat[row]; }
+
+    public double lng(int row) { return lng[row]; }
+
+    public String id(int row) { return ids[row]; }
+
+    public boolean is(int row, Kind kind) { return (kinds[row] & (1 << kind.ordinal())) != 0; }
+
+    public int count(Kind kind) { return rowsByKind[kind.ordinal()].length; }
+
+    // 없으면 -1
+    public int rowOf(String id) {
+        Integer row = rowById.get(id);
+        return row == null ? -1 : row;
+    }
+
+    // id 목록 -> 행 비트셋(풀에 없는 id는 무시)
+    public BitSet rowsOf(Collection<String> placeIds) {
+        BitSet out = new BitSet(size);
+        for (String id : placeIds) {
+            int row = rowOf(id);
+            if (row >= 0) out.set(row);
+        }
+        return out;
+    }
+
+    public double[] centroid() {
+        if (size == 0) return new double[]{37.607, 127.02};
+        double sumLat = 0, sumLng = 0;
+        for (int i = 0; i < size; i++) { sumLat += lat[i]; sumLng += lng[i]; }
+        return new double[]{sumLat / size, sumLng / size};
+    }
+
+    public PlaceLite toLite(int row) {
+        return PlaceLite.builder()
+                .id(ids[row])
+                .name(names[row])
+                .roadAddress(roadAddresses[row])
+                .lat(lat[row])
+                .lng(lng[row])
+                .kakaoUrl(kakaoUrls[row])
+                .phone(phones[row])
+                .categoryGroupCode(word(groupCodes[row]))
+                .categoryName(word(categoryNames[row]))
+                .build();
+    }
+
+    public List<PlaceLite> toLite(int[] rows) {
+        List<PlaceLite> out = new ArrayList<>(rows.length);
+        for (int row : rows) out.add(toLite(row));
+        return out;
+    }
+
+    /* ===== 인덱스용(같은 패키지) ===== */
+
+    int[] rows(Kind kind) { return rowsByKind[kind.ordinal()]; }
+
+    double[] latArray() { return lat; }
+
+    double[] lngArray() { return lng; }
+
+    private String word(int code) {
+        return code < 0 ? null : dict[code];
+    }
+
+    /* ===== 빌더 ===== */
+
+    public static final class Builder {
+        private int size;
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<String> roadAddresses = new ArrayList<>();
+        private final List<String> kakaoUrls = new ArrayList<>();
+        private final List<String> phones = new ArrayList<>();
+        private double[] lat = new double[64];
+        private double[] lng = new double[64];
+        private int[] kinds = new int[64];
+        private int[] groupCodes = new int[64];
+        private int[] categoryNames = new int[64];
+        private final List<String> dict = new ArrayList<>();
+        private final Map<String, Integer> codeByWord = new HashMap<>();
+        private final List<List<Integer>> rowsByKind = new ArrayList<>();
+        private final Map<String, Integer> rowById = new HashMap<>();
+
+        private Builder() {
+            for (int k = 0; k < Kind.values().length; k++) rowsByKind.add(new ArrayList<>());
+        }
+
+        public Builder add(PlaceLite p, Kind kind) {
+            return add(p.getId(), p.getName(), p.getRoadAddress(), p.getLat(), p.getLng(),
+                    p.getKakaoUrl(), p.getPhone(), p.getCategoryGroupCode(), p.getCategoryName(), kind);
+        }
+
+        // 이미 있는 id면 Kind만 추가(정보는 처음 것 유지)
+        public Builder add(String id, String name, String roadAddress, double lat, double lng,
+                           String kakaoUrl, String phone, String categoryGroupCode, String categoryName, Kind kind) {
+            int bit = 1 << kind.ordinal();
+            Integer existing = rowById.get(id);
+            if (existing != null) {
+                if ((kinds[existing] & bit) == 0) {
+                    kinds[existing] |= bit;
+                    rowsByKind.get(kind.ordinal()).add(existing);
+                }
+                return this;
+            }
+
+            if (size == this.lat.length) grow();
+            int row = size++;
+            rowById.put(id, row);
+            ids.add(id);
+            names.add(name);
+            roadAddresses.add(roadAddress);
+            kakaoUrls.add(kakaoUrl);
+            phones.add(phone);
+            this.lat[row] = lat;
+            this.lng[row] = lng;
+            kinds[row] = bit;
+            groupCodes[row] = code(categoryGroupCode);
+            categoryNames[row] = code(categoryName);
+            rowsByKind.get(kind.ordinal()).add(row);
+            return this;
+        }
+
+        public CompactPlacePool build() {
+            return new CompactPlacePool(this);
+        }
+
+        private int code(String word) {
+            if (word == null) return -1;
+            return codeByWord.computeIfAbsent(word, w -> {
+                dict.add(w);
+                return dict.size() - 1;
+            });
+        }
+
+        private void grow() {
+            int n = lat.length * 2;
+            lat = Arrays.copyOf(lat, n);
+            lng = Arrays.copyOf(lng, n);
+            kinds = Arrays.copyOf(kinds, n);
+            groupCodes = Arrays.copyOf(groupCodes, n);
+            categoryNames = Arrays.copyOf(categoryNames, n);
+        }
+    }
+}
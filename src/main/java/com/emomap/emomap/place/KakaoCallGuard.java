@@ -0,0 +1,204 @@
+package com.emomap.emomap.place;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/*
+ * 카카오 로컬 API 호출 앞단 보호막(장소 검색/주소 조회 공용, 쿼터가 같아서).
+ * - 토큰 버킷: 초당 permits-per-second, 순간 burst까지. 토큰 없으면 max-wait-ms까지 기다렸다가 호출, 그보다 길면 거절
+ * - 사용자 요청 경로(게시글 주소 조회)는 별도 버킷(interactive.*, 대기 거의 없음) -> 장소 동기화가 버킷을 다 써도 뒤에 줄 안 서고 바로 실패
+ * - 서킷 브레이커: 5xx/429/네트워크 오류가 연속 failure-threshold번이면 open-ms 동안 바로 실패, 그 뒤 한 번 시험 호출
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KakaoCallGuard {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kakao.limiter.permits-per-second:10}")
+    private double permitsPerSecond;
+
+    @Value("${app.kakao.limiter.burst:20}")
+    private int burst;
+
+    @Value("${app.kakao.limiter.max-wait-ms:5000}")
+    private long maxWaitMs;
+
+    @Value("${app.kakao.limiter.interactive.permits-per-second:5}")
+    private double interactivePermitsPerSecond;
+
+    @Value("${app.kakao.limiter.interactive.burst:10}")
+    private int interactiveBurst;
+
+    @Value("${app.kakao.limiter.interactive.max-wait-ms:100}")   // 이보다 오래 기다려야 하면 그냥 "주소 없음"으로
+    private long interactiveMaxWaitMs;
+
+    @Value("${app.kakao.breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${app.kakao.breaker.open-ms:30000}")
+    private long openMs;
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private TokenBucket background;    // 장소 동기화(배치)
+    private TokenBucket interactive;   // 요청 스레드에서 부르는 것
+
+    // 서킷 브레이커
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private boolean probing;
+
+    @PostConstruct
+    void init() {
+        background = new TokenBucket(permitsPerSecond, burst, maxWaitMs);
+        interactive = new TokenBucket(interactivePermitsPerSecond, interactiveBurst, interactiveMaxWaitMs);
+        Gauge.builder("kakao.client.breaker.state", this, g -> g.stateCode())
+                .description("0=closed, 1=open, 2=half-open")
+                .register(meterRegistry);
+    }
+
+    /* 카카오 호출 Mono를 감싸서 제한/차단 적용(백그라운드 버킷). 막히면 503 ResponseStatusException */
+    public <T> Mono<T> guard(Mono<T> call) {
+        return guard(call, background);
+    }
+
+    /* 사용자 요청 경로용: 자기 버킷, 거의 안 기다리고 바로 503 */
+    public <T> Mono<T> guardInteractive(Mono<T> call) {
+        return guard(call, interactive);
+    }
+
+    private <T> Mono<T> guard(Mono<T> call, TokenBucket bucket) {
+        return Mono.defer(() -> {
+            if (!tryPass()) {
+                count("short_circuited");
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "카카오 API 일시 차단 중"));
+            }
+            long waitNs = bucket.reserve();
+            if (waitNs < 0) {
+                releaseProbe();
+                count(bucket == interactive ? "rejected_interactive" : "rejected");
+                return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "카카오 API 호출 한도 초과"));
+            }
+
+            Mono<T> guarded = call
+                    .doOnSuccess(v -> onSuccess())
+                    .doOnError(this::onError)
+                    .doOnCancel(this::releaseProbe);
+            if (waitNs == 0) return guarded;
+
+            count("throttled");
+            return Mono.delay(Duration.ofNanos(waitNs)).then(guarded);
+        });
+    }
+
+    void count(String outcome) {
+        meterRegistry.counter("kakao.client.calls", "outcome", outcome).increment();
+    }
+
+    /* ===== 토큰 버킷 ===== */
+
+    private static final class TokenBucket {
+        private final double perNs;
+        private final int burst;
+        private final long maxWaitNs;
+        private double tokens;        // 음수 = 이미 예약된 대기분
+        private long refilledAt;
+
+        TokenBucket(double permitsPerSecond, int burst, long maxWaitMs) {
+            this.perNs = permitsPerSecond / 1_000_000_000.0;
+            this.burst = Math.max(1, burst);
+            this.maxWaitNs = maxWaitMs * 1_000_000L;
+            this.tokens = this.burst;
+            this.refilledAt = System.nanoTime();
+        }
+
+        // 토큰 하나 예약하고 기다려야 하는 시간(ns) 반환, max-wait보다 길면 -1
+        synchronized long reserve() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * perNs);
+            refilledAt = now;
+
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            long waitNs = (long) Math.ceil((1 - tokens) / perNs);
+            if (waitNs > maxWaitNs) return -1;
+            tokens -= 1;
+            return waitNs;
+        }
+    }
+
+    /* ===== 서킷 브레이커 ===== */
+
+    private synchronized boolean tryPass() {
+        if (state == State.CLOSED) return true;
+        if (state == State.OPEN) {
+            if (System.nanoTime() < openUntil) return false;
+            state = State.HALF_OPEN;
+            probing = false;
+        }
+        // half-open: 시험 호출 하나만 통과
+        if (probing) return false;
+        probing = true;
+        return true;
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probing = false;
+        if (state != State.CLOSED) log.info("[KAKAO] circuit closed");
+        state = State.CLOSED;
+    }
+
+    private synchronized void onError(Throwable e) {
+        probing = false;
+        if (!isFailure(e)) {
+            // 4xx(잘못된 요청)는 카카오 상태와 무관 -> 브레이커에 안 셈
+            if (state == State.HALF_OPEN) state = State.CLOSED;
+            consecutiveFailures = 0;
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openUntil = System.nanoTime() + openMs * 1_000_000L;
+            log.warn("[KAKAO] circuit open for {}ms after {} failures, cause={}", openMs, consecutiveFailures, e.toString());
+        }
+    }
+
+    private synchronized void releaseProbe() {
+        probing = false;
+    }
+
+    private synchronized int stateCode() {
+        return switch (state) {
+            case CLOSED -> 0;
+            case OPEN -> 1;
+            case HALF_OPEN -> 2;
+        };
+    }
+
+    private static boolean isFailure(Throwable e) {
+        if (e instanceof WebClientResponseException w) {
+            return w.getStatusCode().is5xxServerError() || w.getStatusCode().value() == 429;
+        }
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
+    }
+}
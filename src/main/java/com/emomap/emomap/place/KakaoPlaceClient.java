@@ -1,18 +1,34 @@
 package com.emomap.emomap.place;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class KakaoPlaceClient {
 
     private final WebClient kakaoLocalClient;
+    private final MeterRegistry meterRegistry;
+    private final KakaoCallGuard callGuard;
+
+    // 같은 페이지 요청(path, key, rect, page, size)이 동시에 오면 호출 하나를 같이 씀
+    private final Map<PageKey, Mono<PageResult>> inFlight = new ConcurrentHashMap<>();
 
     /* ===== Kakao 응답 DTO ===== */
     @Data
@@ -52,36 +68,99 @@ public class KakaoPlaceClient {
 
     /* ===== 키워드 검색 ===== */
     public List<KakaoPlaceDoc> searchKeywordInRect(String query, Rect rect, int size, int pages) {
-        return fetchPaged("/v2/local/search/keyword.json", "query", query, rect, size, pages);
+        return searchKeywordInRectAsync(query, rect, size, pages).block();
+    }
+
+    public Mono<List<KakaoPlaceDoc>> searchKeywordInRectAsync(String query, Rect rect, int size, int pages) {
+        return streamKeywordInRect(query, rect, size, pages, d -> true, () -> false).collectList();
+    }
+
+    // 페이지 오는 대로 accept 통과한 문서만 흘려보내고, 페이지 하나 받은 뒤 enough가 true면 다음 페이지는 안 부름
+    public Flux<KakaoPlaceDoc> streamKeywordInRect(String query, Rect rect, int size, int pages,
+                                                   Predicate<KakaoPlaceDoc> accept, BooleanSupplier enough) {
+        return streamPaged("/v2/local/search/keyword.json", "query", query, rect, size, pages, accept, enough);
     }
 
     /* ===== 카테고리 검색 ===== */
     public List<KakaoPlaceDoc> searchCategoryInRect(String categoryCode, Rect rect, int size, int pages) {
-        return fetchPaged("/v2/local/search/category.json", "category_group_code", categoryCode, rect, size, pages);
+        return searchCategoryInRectAsync(categoryCode, rect, size, pages).block();
+    }
+
+    public Mono<List<KakaoPlaceDoc>> searchCategoryInRectAsync(String categoryCode, Rect rect, int size, int pages) {
+        return streamCategoryInRect(categoryCode, rect, size, pages, d -> true, () -> false).collectList();
+    }
+
+    public Flux<KakaoPlaceDoc> streamCategoryInRect(String categoryCode, Rect rect, int size, int pages,
+                                                    Predicate<KakaoPlaceDoc> accept, BooleanSupplier enough) {
+        return streamPaged("/v2/local/search/category.json", "category_group_code", categoryCode, rect, size, pages, accept, enough);
     }
 
     /* ===== 내부 공통 ===== */
-    private List<KakaoPlaceDoc> fetchPaged(String path, String key, String value, Rect rect, int size, int pages) {
-        java.util.ArrayList<KakaoPlaceDoc> out = new java.util.ArrayList<>();
-        int page = 1;
-        while (page <= pages) {
-            final int pageParam = page;
-            KakaoSearchResp resp = kakaoLocalClient.get()
-                    .uri(uri -> uri.path(path)
-                            .queryParam(key, value)
-                            .queryParam("rect", rect.toParam())
-                            .queryParam("page", pageParam)
-                            .queryParam("size", size)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(KakaoSearchResp.class)
-                    .block();
-
-            if (resp == null || resp.getDocuments() == null) break;
-            out.addAll(resp.getDocuments());
-            if (resp.getMeta() == null || resp.getMeta().isEnd) break;
-            page++;
-        }
-        return out;
+    private record PageResult(int page, KakaoSearchResp resp) {}
+
+    private record PageKey(String path, String key, String value, String rect, int page, int size) {}
+
+    // 페이지 하나를 accept로 거른 결과
+    private record Chunk(int page, boolean hasNext, List<KakaoPlaceDoc> docs) {}
+
+    // 한 쿼리 안의 페이지는 is_end 때문에 순서대로, 쿼리끼리는 호출하는 쪽에서 동시에 돌릴 수 있음
+    private Flux<KakaoPlaceDoc> streamPaged(String path, String key, String value, Rect rect, int size, int pages,
+                                            Predicate<KakaoPlaceDoc> accept, BooleanSupplier enough) {
+        return Flux.defer(() -> {
+            long started = System.nanoTime();
+            return fetchChunk(path, key, value, rect, size, 1, accept)
+                    .expand(c -> (c.hasNext() && c.page() < pages && !enough.getAsBoolean())
+                            ? fetchChunk(path, key, value, rect, size, c.page() + 1, accept)
+                            : Mono.empty())
+                    .concatMapIterable(Chunk::docs)
+                    .doFinally(signal -> {
+                        long tookNs = System.nanoTime() - started;
+                        meterRegistry.timer("kakao.place.query", "key", key, "value", value)
+                                .record(tookNs, TimeUnit.NANOSECONDS);
+                        log.debug("[KAKAO] {}={} took={}ms ({})", key, value, tookNs / 1_000_000, signal);
+                    });
+        });
+    }
+
+    private Mono<Chunk> fetchChunk(String path, String key, String value, Rect rect, int size, int page,
+                                   Predicate<KakaoPlaceDoc> accept) {
+        return fetchPage(path, key, value, rect, size, page).map(pr -> {
+            List<KakaoPlaceDoc> ok = pr.resp().getDocuments().stream()
+                    .filter(Objects::nonNull)
+                    .filter(accept)
+                    .toList();
+            boolean hasNext = pr.resp().getMeta() != null && !pr.resp().getMeta().isEnd;
+            return new Chunk(page, hasNext, ok);
+        });
+    }
+
+    private Mono<PageResult> fetchPage(String path, String key, String value, Rect rect, int size, int page) {
+        PageKey pk = new PageKey(path, key, value, rect.toParam(), page, size);
+        return Mono.defer(() -> {
+            boolean[] leader = {false};
+            Mono<PageResult> shared = inFlight.computeIfAbsent(pk, k -> {
+                leader[0] = true;
+                // 끝나면 맵에서 빠짐 -> 결과를 계속 캐싱하는 게 아니라 진행 중인 호출만 공유
+                return callGuard.guard(callPage(k))
+                        .doFinally(s -> inFlight.remove(k))
+                        .cache();
+            });
+            if (!leader[0]) callGuard.count("coalesced");
+            return shared;
+        });
+    }
+
+    private Mono<PageResult> callPage(PageKey k) {
+        return kakaoLocalClient.get()
+                .uri(uri -> uri.path(k.path())
+                        .queryParam(k.key(), k.value())
+                        .queryParam("rect", k.rect())
+                        .queryParam("page", k.page())
+                        .queryParam("size", k.size())
+                        .build())
+                .retrieve()
+                .bodyToMono(KakaoSearchResp.class)
+                .filter(resp -> resp.getDocuments() != null)
+                .map(resp -> new PageResult(k.page(), resp));
     }
 }
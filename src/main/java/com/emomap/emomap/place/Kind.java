@@ -0,0 +1,4 @@
+package com.emomap.emomap.place;
+
+// 코스 단계에서 쓰는 장소 종류
+public enum Kind { WALK, VIEW, CAFE, SHOP, FOOD, PUB, ACTIVITY }
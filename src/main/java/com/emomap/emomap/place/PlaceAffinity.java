@@ -0,0 +1,48 @@
+package com.emomap.emomap.place;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * 스냅샷 풀의 행별 감정 친화도(0~1). 감정마다 float[] 하나(풀 행 번호 순).
+ * DB의 누적 점수를 log 스케일로 눌러서 풀 안 최대값 기준으로 정규화함 -> 게시글이 몰린 장소 하나가 전부 가져가지 않게.
+ */
+public final class PlaceAffinity {
+
+    private static final PlaceAffinity NONE = new PlaceAffinity(Map.of());
+
+    private final Map<String, float[]> byEmotion;
+
+    private PlaceAffinity(Map<String, float[]> byEmotion) {
+        this.byEmotion = byEmotion;
+    }
+
+    public static PlaceAffinity none() {
+        return NONE;
+    }
+
+    // rawByEmotion: 감정 -> (장소 id -> 누적 점수)
+    public static PlaceAffinity of(CompactPlacePool pool, Map<String, Map<String, Double>> rawByEmotion) {
+        Map<String, float[]> out = new HashMap<>();
+        rawByEmotion.forEach((emotion, byPlace) -> {
+            float[] scores = new float[pool.size()];
+            double max = 0;
+            for (Map.Entry<String, Double> e : byPlace.entrySet()) {
+                int row = pool.rowOf(e.getKey());
+                if (row < 0 || e.getValue() <= 0) continue;
+                double v = Math.log1p(e.getValue());
+                scores[row] = (float) v;
+                max = Math.max(max, v);
+            }
+            if (max <= 0) return;
+            for (int i = 0; i < scores.length; i++) scores[i] = (float) (scores[i] / max);
+            out.put(emotion, scores);
+        });
+        return out.isEmpty() ? NONE : new PlaceAffinity(Map.copyOf(out));
+    }
+
+    /* 행 번호 -> 0~1. 이 감정 점수가 하나도 없으면 null */
+    public float[] scores(String emotion) {
+        return byEmotion.get(emotion);
+    }
+}
@@ -0,0 +1,131 @@
+package com.emomap.emomap.place;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/*
+ * Kind별 균일 격자 인덱스(불변). CompactPlacePool의 행 번호만 들고 있음.
+ * 후보 풀 스냅샷이 바뀔 때 한 번 만들고, 코스 만들 때는 k-최근접 조회만 함.
+ * 격자 칸을 안쪽 링부터 바깥으로 넓혀가며 보다가 더 바깥 칸이 현재 k번째보다 가까울 수 없으면 멈춤.
+ */
+public final class PlaceSpatialIndex {
+
+    private static final double CELL_DEG = 0.0025;        // 약 250m
+    private static final double KM_PER_DEG_LAT = 110.5;   // 보수적으로 조금 작게
+    private static final int[] NONE = new int[0];
+
+    private final double[] lat;
+    private final double[] lng;
+    private final Grid[] grids;   // Kind ordinal -> 격자(없으면 null)
+
+    private PlaceSpatialIndex(CompactPlacePool pool) {
+        this.lat = pool.latArray();
+        this.lng = pool.lngArray();
+        this.grids = new Grid[Kind.values().length];
+        for (Kind k : Kind.values()) {
+            int[] rows = pool.rows(k);
+            if (rows.length > 0) grids[k.ordinal()] = new Grid(rows, lat, lng);
+        }
+    }
+
+    public static PlaceSpatialIndex build(CompactPlacePool pool) {
+        return new PlaceSpatialIndex(pool);
+    }
+
+    /*
+     * kinds 중에서 (lat,lng)에 가까운 순으로 최대 k개 행 번호, skip이 true인 행은 건너뜀.
+     * 같은 장소가 여러 Kind에 있어도 한 번만.
+     */
+    public int[] nearest(Collection<Kind> kinds, double qLat, double qLng, int k, IntPredicate skip) {
+        if (k <= 0) return NONE;
+        List<Grid> targets = new ArrayList<>(kinds.size());
+        for (Kind kind : kinds) {
+            Grid g = grids[kind.ordinal()];
+            if (g != null) targets.add(g);
+        }
+        if (targets.isEmpty()) return NONE;
+
+        int row = cellOf(qLat), col = cellOf(qLng);
+        int maxRing = 0;
+        for (Grid g : targets) maxRing = Math.max(maxRing, g.ringToCover(row, col));
+
+        // 가까운 순으로 정렬된 고정 크기 배열(k가 작아서 삽입 정렬이 힙보다 쌈)
+        int[] hitRows = new int[k];
+        double[] hitKm = new double[k];
+        int n = 0;
+        double ringKm = CELL_DEG * Math.min(KM_PER_DEG_LAT, 111.32 * Math.cos(Math.toRadians(Math.abs(qLat) + CELL_DEG)));
+
+        for (int r = 0; r <= maxRing; r++) {
+            for (Grid g : targets) {
+                for (int dr = -r; dr <= r; dr++) {
+                    int rr = row + dr;
+                    if (rr < g.minRow || rr > g.maxRow) continue;
+                    boolean edgeRow = Math.abs(dr) == r;
+                    for (int dc = -r; dc <= r; dc += edgeRow ? 1 : Math.max(1, 2 * r)) {
+                        int cc = col + dc;
+                        if (cc < g.minCol || cc > g.maxCol) continue;
+                        int[] cell = g.cells.get(key(rr, cc));
+                        if (cell == null) continue;
+
+                        for (int p : cell) {
+                            double km = Geo.haversineKm(qLat, qLng, lat[p], lng[p]);
+                            if (n == k && km >= hitKm[n - 1]) continue;
+                            // 여러 Kind에서 같은 행이 또 나오는 경우(이미 들어가 있으면 거리도 같음)
+                            if (contains(hitRows, n, p) || skip.test(p)) continue;
+
+                            int i = (n < k) ? n++ : n - 1;
+                            while (i > 0 && hitKm[i - 1] > km) {
+                                hitKm[i] = hitKm[i - 1];
+                                hitRows[i] = hitRows[i - 1];
+                                i--;
+                            }
+                            hitKm[i] = km;
+                            hitRows[i] = p;
+                        }
+                    }
+                }
+            }
+            // 다음 링의 칸들은 최소 r * ringKm 만큼 떨어져 있음
+            if (n == k && hitKm[n - 1] <= r * ringKm) break;
+        }
+        return n == k ? hitRows : Arrays.copyOf(hitRows, n);
+    }
+
+    private static boolean contains(int[] rows, int n, int row) {
+        for (int i = 0; i < n; i++) if (rows[i] == row) return true;
+        return false;
+    }
+
+    private static int cellOf(double deg) {
+        return (int) Math.floor(deg / CELL_DEG);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    /* ===== Kind 하나의 격자(칸 -> 행 번호 배열) ===== */
+    private static final class Grid {
+        private final Map<Long, int[]> cells = new HashMap<>();
+        private int minRow = Integer.MAX_VALUE, maxRow = Integer.MIN_VALUE;
+        private int minCol = Integer.MAX_VALUE, maxCol = Integer.MIN_VALUE;
+
+        Grid(int[] rows, double[] lat, double[] lng) {
+            Map<Long, List<Integer>> tmp = new HashMap<>();
+            for (int p : rows) {
+                int r = cellOf(lat[p]), c = cellOf(lng[p]);
+                tmp.computeIfAbsent(key(r, c), x -> new ArrayList<>()).add(p);
+                minRow = Math.min(minRow, r); maxRow = Math.max(maxRow, r);
+                minCol = Math.min(minCol, c); maxCol = Math.max(maxCol, c);
+            }
+            tmp.forEach((key, list) -> cells.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        // (row,col)에서 이 격자의 모든 칸을 덮으려면 몇 번째 링까지 봐야 하는지
+        int ringToCover(int row, int col) {
+            int dr = Math.max(Math.abs(row - minRow), Math.abs(row - maxRow));
+            int dc = Math.max(Math.abs(col - minCol), Math.abs(col - maxCol));
+            return Math.max(dr, dc);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.emomap.emomap.place.entity;                 // 장소 카탈로그 엔티티 패키지
+
+import com.emomap.emomap.common.domain.BaseEntity;
+import com.emomap.emomap.place.Kind;
+import jakarta.persistence.*;                            // JPA 어노테이션
+import lombok.*;                                         // lombok
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "places",
+        uniqueConstraints = @UniqueConstraint(name = "uk_places_place_kind_area", columnNames = {"place_id", "kind", "area"}),
+        indexes = {
+                @Index(name = "idx_places_area_deleted", columnList = "area,deleted"), // 지역별 풀 로딩용
+                @Index(name = "idx_places_lat_lng", columnList = "lat,lng")            // 게시글 주변 장소 조회용
+        }
+)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class Place extends BaseEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "place_id", nullable = false)
+    private String placeId;                              // 카카오 장소 id
+
+    @Column(nullable = false)
+    private String area;                                 // 수집 타일 키("성북구", 타일 여러 개면 "종로구#0")
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Kind kind;                                   // 같은 장소가 여러 Kind에 들어갈 수 있음(관광/문화)
+
+    @Column(nullable = false) private String name;
+    private String roadAddress;                          // 도로명(없으면 지번)
+    @Column(nullable = false) private double lat;        // 위도
+    @Column(nullable = false) private double lng;        // 경도
+
+    private String kakaoUrl;
+    private String phone;
+    private String categoryGroupCode;
+    private String categoryName;
+
+    @Column(name = "sort_order", nullable = false)
+    private int sortOrder;                               // 수집 순서(Kind 안에서 dedup/트림 우선순위)
+
+    @Column(name = "last_seen", nullable = false)
+    private LocalDateTime lastSeen;                      // 마지막으로 카카오 결과에 나온 시각
+
+    @Column(nullable = false)
+    private boolean deleted;                             // 톰스톤: 동기화에서 빠지면 true, 다시 나오면 false
+}
@@ -0,0 +1,31 @@
+package com.emomap.emomap.place.entity;                 // 장소 카탈로그 엔티티 패키지
+
+import jakarta.persistence.*;                            // JPA 어노테이션
+import lombok.*;                                         // lombok
+
+import java.time.LocalDateTime;
+
+/* 장소 주변(반경 안) 게시글의 감정 태그를 거리 가중치로 누적한 점수. 게시글 생성/태그 수정 때 증분 반영 */
+@Entity
+@Table(
+        name = "place_emotion_scores",
+        uniqueConstraints = @UniqueConstraint(name = "uk_place_emotion", columnNames = {"place_id", "emotion"})
+)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class PlaceEmotionScore {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "place_id", nullable = false)
+    private String placeId;                              // 카카오 장소 id
+
+    @Column(nullable = false, length = 20)
+    private String emotion;                              // "우정" 같은 한글 라벨
+
+    @Column(nullable = false)
+    private double score;                                // 반경 안 게시글마다 (1 - 거리/반경) 누적
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,36 @@
+package com.emomap.emomap.place.repository;
+
+import com.emomap.emomap.place.entity.PlaceEmotionScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PlaceEmotionScoreRepository extends JpaRepository<PlaceEmotionScore, Long> {
+
+    List<PlaceEmotionScore> findByPlaceIdIn(Collection<String> placeIds);   // 스냅샷 만들 때 풀 장소들 점수
+
+    // 스냅샷 변경 감지용 "행 수/마지막 수정 시각"(해당 타일들의 살아있는 장소 점수만)
+    @Query(value = """
+            SELECT count(*) || '/' || coalesce(to_char(max(s.updated_at), 'YYYYMMDDHH24MISSUS'), '-')
+            FROM place_emotion_scores s
+            WHERE s.place_id IN (SELECT p.place_id FROM places p WHERE p.area IN (:areas) AND p.deleted = false)
+            """, nativeQuery = true)
+    String fingerprint(@Param("areas") Collection<String> areas);
+
+    // 증분 반영(없으면 insert). 여러 노드에서 동시에 와도 DB에서 원자적으로 더함
+    // 새 행도 0 밑으로 안 감(태그 제거 -delta가 먼저 오면 빚으로 남아 뒤의 +를 먹음). 기존 행은 원래 delta 그대로 더함
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO place_emotion_scores (place_id, emotion, score, updated_at)
+            VALUES (:placeId, :emotion, GREATEST(0, :delta), now())
+            ON CONFLICT (place_id, emotion)
+            DO UPDATE SET score = GREATEST(0, place_emotion_scores.score + :delta), updated_at = now()
+            """, nativeQuery = true)
+    void addScore(@Param("placeId") String placeId, @Param("emotion") String emotion, @Param("delta") double delta);
+}
@@ -0,0 +1,23 @@
+package com.emomap.emomap.place.repository;
+
+import com.emomap.emomap.place.entity.Place;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PlaceRepository extends JpaRepository<Place, Long> {
+    List<Place> findByArea(String area);                                        // 동기화(upsert/톰스톤)용
+    List<Place> findByAreaInAndDeletedFalseOrderByKindAscSortOrderAsc(Collection<String> areas); // 풀 로딩용(타일 여러 개)
+    boolean existsByAreaAndDeletedFalse(String area);
+    List<Place> findByLatBetweenAndLngBetweenAndDeletedFalse(double minLat, double maxLat, double minLng, double maxLng); // 게시글 주변 장소(감정 점수)
+
+    // 풀 변경 감지용 "행 수/마지막 수정 시각"(톰스톤도 updated_at이 바뀜)
+    @Query(value = """
+            SELECT count(*) || '/' || coalesce(to_char(max(updated_at), 'YYYYMMDDHH24MISSUS'), '-')
+            FROM places WHERE area IN (:areas)
+            """, nativeQuery = true)
+    String fingerprint(@Param("areas") Collection<String> areas);
+}
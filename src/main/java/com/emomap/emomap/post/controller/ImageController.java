@@ -1,38 +1,142 @@
 package com.emomap.emomap.post.controller;
 
 import com.emomap.emomap.post.service.StorageService;
+import com.emomap.emomap.post.service.StorageService.StoredImage;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.nio.file.Files;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+/*
+ * 업로드 이미지 서빙. URL이 내용 해시/UUID라 같은 URL의 내용은 안 바뀜 -> 오래 가는 immutable 캐시
+ * - If-None-Match / If-Modified-Since 맞으면 304(본문 없음)
+ * - Range 한 구간이면 206, 범위 밖이면 416. 여러 구간은 전체로 응답(RFC상 허용)
+ * - 본문은 Tomcat sendfile(커널이 파일 -> 소켓 직접 복사), 지원 안 되거나 작은 파일은 FileChannel.transferTo
+ */
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/uploads")
 public class ImageController {
 
+    // Tomcat NIO 커넥터 sendfile 요청 속성(DefaultServlet과 같은 방식)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final StorageService storageService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.upload.serve.max-age-days:365}")
+    private long maxAgeDays;
 
-    @GetMapping("/{date}/{fileName:.+}")
-    public ResponseEntity<Resource> getImage(
+    @Value("${app.upload.serve.sendfile-min-bytes:49152}")   // 이보다 작으면 그냥 복사가 나음(Tomcat 기본값과 같음)
+    private long sendfileMinBytes;
+
+    @GetMapping("/{date:blob|\\d{4}-\\d{2}-\\d{2}}/{fileName:.+}")   // blob 아니면 날짜 폴더만(tmp 등은 매핑 안 됨)
+    public void getImage(
             @PathVariable("date") String dateFolder,
-            @PathVariable("fileName") String fileName
-    ) {
-        Resource resource = storageService.loadAsResource(dateFolder, fileName);
-        MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM;
+            @PathVariable("fileName") String fileName,
+            ServletWebRequest webRequest
+    ) throws IOException {
+        HttpServletRequest request = webRequest.getRequest();
+        HttpServletResponse response = webRequest.getResponse();
+        StoredImage image = storageService.stat(dateFolder, fileName);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                CacheControl.maxAge(maxAgeDays, TimeUnit.DAYS).cachePublic().getHeaderValue() + ", immutable");
+        // ETag/Last-Modified 헤더도 여기서 붙음
+        if (webRequest.checkNotModified(image.etag(), image.lastModified())) {
+            count("not_modified");
+            return;
+        }
+
+        long size = image.size();
+        long start = 0, end = size - 1;
+        boolean partial = false;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, image)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {   // 문법 틀린 Range는 무시하고 전체
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(size);
+                end = ranges.get(0).getRangeEnd(size);
+                if (start >= size || start > end) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    count("unsatisfiable");
+                    return;
+                }
+                partial = true;
+            }
+        }
+
+        long length = end - start + 1;
+        response.setStatus(partial ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        response.setContentType(image.contentType().toString());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"");
+        if (partial) response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        response.setContentLengthLong(length);
+        count(partial ? "partial" : "full");
+
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length == 0) return;
+        transfer(request, response, image.path(), start, length);
+    }
+
+    // If-Range가 지금 ETag(강한 비교)/수정 시각과 다르면 Range 무시하고 전체
+    private static boolean ifRangeMatches(HttpServletRequest request, StoredImage image) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) return ifRange.equals(image.etag());
         try {
-            // 가능하면 실제 MIME 추론
-            mediaType = MediaType.parseMediaType(
-                    Files.probeContentType(Path.of(resource.getFile().getAbsolutePath()))
-            );
-        } catch (Exception ignored) {}
-
-        return ResponseEntity.ok()
-                .contentType(mediaType)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
-                .body(resource);
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == image.lastModified() / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void transfer(HttpServletRequest request, HttpServletResponse response,
+                          Path path, long start, long length) throws IOException {
+        if (length >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // 본문은 안 쓰고 속성만, 응답 끝날 때 Tomcat이 sendfile로 보냄(end는 미포함)
+            request.setAttribute(SENDFILE_FILENAME, path.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            meterRegistry.counter("upload.serve.bytes", "transfer", "sendfile").increment(length);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long pos = start, remaining = length;
+            while (remaining > 0) {
+                long n = file.transferTo(pos, remaining, out);
+                if (n <= 0) break;   // 그 사이 파일이 줄어든 경우
+                pos += n;
+                remaining -= n;
+            }
+        }
+        meterRegistry.counter("upload.serve.bytes", "transfer", "channel").increment(length);
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("upload.serve.responses", "result", result).increment();
     }
 }
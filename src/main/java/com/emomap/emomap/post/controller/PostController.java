@@ -4,6 +4,7 @@ import com.emomap.emomap.post.entity.dto.request.CreatePostFormDTO;
 import com.emomap.emomap.post.entity.dto.response.CreatePostResponseDTO;
 import com.emomap.emomap.post.entity.dto.response.FeedItemDTO;
 import com.emomap.emomap.post.entity.dto.response.PostDetailResponseDTO;
+import com.emomap.emomap.post.entity.dto.response.PostEnrichmentResponseDTO;
 import com.emomap.emomap.post.entity.dto.response.SearchPostResponseDTO;
 import com.emomap.emomap.post.entity.dto.request.UpdateTagsRequestDTO;
 import com.emomap.emomap.post.entity.dto.response.UpdateTagsResponseDTO;
@@ -15,6 +16,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -36,6 +38,7 @@ public class PostController {
                 - 이미지가 없어도 사용 가능
                 - AI가 감정 1~3개 자동 분류("가족","우정","위로/치유","외로움","설렘/사랑","향수","기쁨/신남","화남/분노" 이 것 중에서 분류)
                 - 도로명 주소도 위,경도 가지고 kakao api가 자동 보정
+                - 비동기 모드면 바로 저장하고 enrichmentStatus=PENDING 응답 -> GET /posts/{id}/enrichment로 태그 확인
                 - post.placeName은 장소 이름(예: "스타벅스 종암점")
                 """
     )
@@ -73,6 +76,24 @@ public class PostController {
         return postService.getPostDetailDto(id);
     }
 
+    @Operation(
+            summary = "감정/주소 보강 상태 조회",
+            description = """
+                비동기 모드(app.post.enrichment.mode=async)에서 게시글 생성 응답이 enrichmentStatus=PENDING이면 이걸로 폴링
+                - PENDING: 아직 처리 중(Retry-After 헤더 초 만큼 뒤에 다시 조회)
+                - DONE: tags/roadAddress 확정
+                - FAILED: 재시도 다 실패해서 기본 태그/주소 없음으로 마감
+                """
+    )
+    @GetMapping("/{id}/enrichment")
+    public ResponseEntity<PostEnrichmentResponseDTO> enrichment(@PathVariable Long id) {
+        PostEnrichmentResponseDTO dto = postService.getEnrichment(id);
+        if ("PENDING".equals(dto.status())) {
+            return ResponseEntity.ok().header(HttpHeaders.RETRY_AFTER, "1").body(dto);
+        }
+        return ResponseEntity.ok(dto);
+    }
+
     @Operation(summary = "최신 피드", description = "가장 최근 게시글 페이지네이션")
     @GetMapping("/latest")
     public Page<FeedItemDTO> latest(@RequestParam(defaultValue="0") int page,
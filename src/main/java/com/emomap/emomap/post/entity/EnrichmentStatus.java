@@ -0,0 +1,8 @@
+package com.emomap.emomap.post.entity;
+
+/* 게시글 감정 분류/주소 보정 상태. 동기 모드로 만든 글과 예전 글(null)은 DONE 취급 */
+public enum EnrichmentStatus {
+    PENDING,    // 백그라운드 잡 대기/재시도 중
+    DONE,       // 완료
+    FAILED      // 재시도 다 써서 폴백 값(기본 태그, 주소 없음)으로 마감
+}
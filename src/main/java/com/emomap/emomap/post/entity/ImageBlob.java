@@ -0,0 +1,34 @@
+package com.emomap.emomap.post.entity;                  // 포스트 엔티티 패키지
+
+import jakarta.persistence.*;                            // JPA 어노테이션
+import lombok.*;                                         // lombok
+
+import java.time.LocalDateTime;
+
+/*
+ * 내용 주소 이미지 blob(파일 경로 = uploads/cas/앞2/다음2/sha256). 같은 사진은 한 번만 저장.
+ * refCount = 이 blob을 가리키는 post_images 행 수(업로드 때 +1, 매일 실제 참조 수로 다시 맞춤) -> 0이면 GC 대상
+ */
+@Entity
+@Table(name = "image_blobs")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ImageBlob {
+    @Id
+    @Column(length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private long size;                                   // 바이트
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;                          // 처음 올라온 업로드 기준
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_referenced_at", nullable = false)
+    private LocalDateTime lastReferencedAt;              // 마지막 업로드 시각(GC 유예 기준)
+}
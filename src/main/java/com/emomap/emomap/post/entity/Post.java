@@ -37,4 +37,11 @@ public class Post extends BaseEntity {
     @CollectionTable(name = "post_images", joinColumns = @JoinColumn(name = "post_id"))
     @Column(name = "image_url")
     private List<String> imageUrls;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "enrichment_status", length = 16)
+    private EnrichmentStatus enrichmentStatus;           // 감정/주소 보강 상태(null = 예전 글, DONE 취급)
+
+    @Column(name = "tags_confirmed")
+    private Boolean tagsConfirmed;                       // 사용자가 PATCH로 태그를 확정함(로컬 분류기 학습 데이터)
 }
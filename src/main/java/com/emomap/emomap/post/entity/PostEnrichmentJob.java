@@ -0,0 +1,52 @@
+package com.emomap.emomap.post.entity;                  // 포스트 엔티티 패키지
+
+import com.emomap.emomap.common.domain.BaseEntity;
+import jakarta.persistence.*;                            // JPA 어노테이션
+import lombok.*;                                         // lombok
+
+import java.time.LocalDateTime;
+
+/*
+ * 게시글 비동기 보강(감정 분류 + 도로명 주소) 잡 큐. 글 저장이랑 같은 트랜잭션에서 넣어서 재시작해도 안 날아감.
+ * 워커가 FOR UPDATE SKIP LOCKED로 집어가서 RUNNING + lockedUntil(임대) 걸고 처리, 죽으면 임대 끝난 뒤 다시 집어감.
+ * 성공하면 행 삭제, 재시도 다 쓰면 FAILED로 남김.
+ */
+@Entity
+@Table(
+        name = "post_enrichment_jobs",
+        indexes = @Index(name = "idx_post_enrichment_jobs_status_next", columnList = "status,next_run_at")
+)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class PostEnrichmentJob extends BaseEntity {
+
+    public enum Status { PENDING, RUNNING, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "post_id", nullable = false, unique = true)
+    private Long postId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;                                // 지금까지 시도 횟수
+
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;                     // 이 시각 이후에 집어감(재시도 백오프)
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;                   // RUNNING 임대 만료 시각
+
+    @Column(name = "tags_done", nullable = false)
+    private boolean tagsDone;                            // 감정 분류 끝남(재시도 땐 남은 단계만)
+
+    @Column(name = "address_done", nullable = false)
+    private boolean addressDone;                         // 주소 보정 끝남
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
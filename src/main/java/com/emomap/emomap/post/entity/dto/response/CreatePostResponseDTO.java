@@ -21,5 +21,11 @@ public record CreatePostResponseDTO(
                 description = "업로드 이미지 URL",
                 example = "[\"/uploads/2025-08-22/xxxx_cat.jpg\"]"
         )
-        List<String> imageUrls
+        List<String> imageUrls,
+
+        @Schema(
+                description = "감정/주소 보강 상태(PENDING이면 tags/roadAddress는 GET /posts/{id}/enrichment로 폴링)",
+                example = "DONE"
+        )
+        String enrichmentStatus
 ) {}
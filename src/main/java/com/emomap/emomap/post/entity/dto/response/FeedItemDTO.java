@@ -9,7 +9,8 @@ public record FeedItemDTO(
         double lng,
         String roadAddress,
         String placeName,
-        String thumbnailUrl,     // 처음 이미지(없으면 null임)
+        String thumbnailUrl,     // 처음 이미지의 small 변형(아직 없으면 원본, 이미지 없으면 null임)
+        ImageVariantsDTO thumbnails,
         List<String> tags,
         String content,
         OffsetDateTime createdAt
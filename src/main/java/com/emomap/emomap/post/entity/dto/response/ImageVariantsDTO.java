@@ -0,0 +1,9 @@
+package com.emomap.emomap.post.entity.dto.response;
+
+// 긴 변 기준 리사이즈 이미지(아직 안 만들어졌으면 원본 URL)
+public record ImageVariantsDTO(
+        String small,       // 128px(목록 썸네일)
+        String medium,      // 512px
+        String large,       // 1024px
+        String original
+) {}
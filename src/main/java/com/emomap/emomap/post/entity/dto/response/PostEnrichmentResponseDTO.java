@@ -0,0 +1,11 @@
+package com.emomap.emomap.post.entity.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+public record PostEnrichmentResponseDTO(
+        @Schema(example = "6") Long id,
+        @Schema(description = "PENDING | DONE | FAILED(폴백 값으로 마감)", example = "DONE") String status,
+        @Schema(description = "감정 태그(PENDING이면 빈 배열)", example = "[\"우정\",\"향수\"]") List<String> tags,
+        @Schema(example = "서울특별시 성북구 종암로23길 35") String roadAddress
+) {}
@@ -12,5 +12,6 @@ public record SearchPostResponseDTO(
         String content,
         List<String> tags,
         OffsetDateTime createdAt,
-        String thumbnailUrl
+        String thumbnailUrl,
+        ImageVariantsDTO thumbnails   // 마커 조회는 null
 ) {}
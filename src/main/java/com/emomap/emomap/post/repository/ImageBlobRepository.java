@@ -0,0 +1,63 @@
+package com.emomap.emomap.post.repository;
+
+import com.emomap.emomap.post.entity.ImageBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    // 업로드 한 건 = 참조 +1(없으면 insert). 같은 사진이 동시에 올라와도 DB에서 원자적으로 셈
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO image_blobs (sha256, size, content_type, ref_count, created_at, last_referenced_at)
+            VALUES (:sha256, :size, :contentType, 1, now(), now())
+            ON CONFLICT (sha256)
+            DO UPDATE SET ref_count = image_blobs.ref_count + 1, last_referenced_at = now()
+            """, nativeQuery = true)
+    void addRef(@Param("sha256") String sha256, @Param("size") long size, @Param("contentType") String contentType);
+
+    /*
+     * 참조 수를 post_images 실제 행 수로 다시 맞춤(저장 실패한 글 등으로 어긋난 것 정리).
+     * post_images를 한 번만 훑어 sha별로 묶고(URL '/uploads/blob/' 뒤 64자) 해시 조인,
+     * 참조 없는 blob은 LEFT JOIN으로 0. 값이 실제로 바뀐 행만 씀 -> 반환값 = 고쳐진 행 수
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            WITH refs AS (
+                SELECT substring(pi.image_url from 15 for 64) AS sha256, count(*) AS n
+                FROM post_images pi
+                WHERE pi.image_url LIKE '/uploads/blob/%'
+                GROUP BY 1
+            )
+            UPDATE image_blobs b
+            SET ref_count = coalesce(r.n, 0)
+            FROM image_blobs cur
+            LEFT JOIN refs r ON r.sha256 = cur.sha256
+            WHERE b.sha256 = cur.sha256
+              AND b.ref_count <> coalesce(r.n, 0)
+            """, nativeQuery = true)
+    int recountRefs();
+
+    @Query(value = """
+            SELECT b.sha256 FROM image_blobs b
+            WHERE b.ref_count = 0 AND b.last_referenced_at < :cutoff
+            """, nativeQuery = true)
+    List<String> findOrphans(@Param("cutoff") LocalDateTime cutoff);
+
+    // 지우기 직전 다시 확인 + 행 잠금(그 사이 같은 사진 업로드는 addRef에서 기다림) -> 트랜잭션 안에서 호출
+    @Query(value = """
+            SELECT * FROM image_blobs b
+            WHERE b.sha256 = :sha256 AND b.ref_count = 0 AND b.last_referenced_at < :cutoff
+            FOR UPDATE
+            """, nativeQuery = true)
+    Optional<ImageBlob> lockOrphan(@Param("sha256") String sha256, @Param("cutoff") LocalDateTime cutoff);
+}
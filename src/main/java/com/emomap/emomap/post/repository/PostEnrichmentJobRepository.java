@@ -0,0 +1,24 @@
+package com.emomap.emomap.post.repository;
+
+import com.emomap.emomap.post.entity.PostEnrichmentJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PostEnrichmentJobRepository extends JpaRepository<PostEnrichmentJob, Long> {
+
+    // 실행할 차례인 잡(대기 중이거나 임대가 끝난 RUNNING). 다른 노드가 잡고 있는 행은 건너뜀 -> 트랜잭션 안에서 호출
+    @Query(value = """
+            SELECT *
+            FROM post_enrichment_jobs j
+            WHERE (j.status = 'PENDING' AND j.next_run_at <= :now)
+               OR (j.status = 'RUNNING' AND j.locked_until < :now)
+            ORDER BY j.next_run_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<PostEnrichmentJob> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -11,6 +11,8 @@ public interface PostRepository extends JpaRepository<Post, Long> { // CRUD + 
     @Query("select p from Post p order by p.createdAt desc")        // 최신순 피드
     Page<Post> findLatest(Pageable pageable);                       // Page로 받기
 
+    Page<Post> findByTagsConfirmedTrue(Pageable pageable);          // 사용자가 태그 확정한 글(로컬 분류기 학습용)
+
     // 검색/필터(키워드, 태그, 지도 범위) + 페이징
     @Query(
             value = """
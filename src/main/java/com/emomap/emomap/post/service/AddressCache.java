@@ -0,0 +1,161 @@
+package com.emomap.emomap.post.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 좌표 -> 도로명 주소 캐시(Kakao coord2address 앞단). 키 = geohash(precision 8 ≒ 38m x 19m 칸)
+ * - 1차: 노드 안 LRU(max-entries, ttl-hours) / 2차: Redis(app.kakao.address-cache.redis.enabled=true)
+ * - "주소 없음" 결과도 빈 문자열로 캐시(같은 칸에서 또 안 물어봄). 호출 실패는 캐시 안 함
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AddressCache {
+
+    private static final String KEY_PREFIX = "geo:addr:";
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    private final StringRedisTemplate redis;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.kakao.address-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.kakao.address-cache.precision:8}")     // geohash 글자 수(8 ≒ ±19m, 9 ≒ ±2.4m)
+    private int precision;
+
+    @Value("${app.kakao.address-cache.max-entries:20000}")
+    private int maxEntries;
+
+    @Value("${app.kakao.address-cache.ttl-hours:720}")   // 도로명 주소는 거의 안 바뀜
+    private long ttlHours;
+
+    @Value("${app.kakao.address-cache.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    private record Entry(String address, long expiresAt) {}
+
+    private Map<String, Entry> local;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        precision = Math.max(1, Math.min(12, precision));
+        int cap = Math.max(1, maxEntries);
+        local = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > cap;
+            }
+        };
+        Gauge.builder("kakao.address_cache.hit_ratio", this, c -> c.hitRatio()).register(meterRegistry);
+        Gauge.builder("kakao.address_cache.size", this, c -> c.localSize()).register(meterRegistry);
+    }
+
+    // 캐시에 있으면 주소(주소 없음으로 캐시된 칸이면 ""), 미스면 null
+    public String get(double lat, double lng) {
+        if (!enabled) return null;
+        String key = geohash(lat, lng, precision);
+        lookups.incrementAndGet();
+
+        String address = getLocal(key);
+        if (address != null) return hit("local", address);
+
+        if (redisEnabled) {
+            try {
+                address = redis.opsForValue().get(KEY_PREFIX + key);
+            } catch (Exception e) {
+                log.warn("[ADDR-CACHE] redis read failed cause={}", e.toString());
+            }
+            if (address != null) {
+                putLocal(key, address);
+                return hit("redis", address);
+            }
+        }
+        meterRegistry.counter("kakao.address_cache.requests", "result", "miss").increment();
+        return null;
+    }
+
+    public void put(double lat, double lng, Optional<String> address) {
+        if (!enabled) return;
+        String key = geohash(lat, lng, precision);
+        String value = address.orElse("");
+        putLocal(key, value);
+        if (!redisEnabled) return;
+        try {
+            redis.opsForValue().set(KEY_PREFIX + key, value, Duration.ofHours(ttlHours));
+        } catch (Exception e) {
+            log.warn("[ADDR-CACHE] redis write failed cause={}", e.toString());
+        }
+    }
+
+    private String hit(String tier, String address) {
+        hits.incrementAndGet();
+        meterRegistry.counter("kakao.address_cache.requests", "result", "hit_" + tier).increment();
+        meterRegistry.counter("kakao.address_cache.saved_calls").increment();   // coord2address 안 부른 횟수
+        return address;
+    }
+
+    private synchronized String getLocal(String key) {
+        Entry e = local.get(key);
+        if (e == null) return null;
+        if (e.expiresAt() < System.currentTimeMillis()) {
+            local.remove(key);
+            return null;
+        }
+        return e.address();
+    }
+
+    private synchronized void putLocal(String key, String address) {
+        local.put(key, new Entry(address, System.currentTimeMillis() + Duration.ofHours(ttlHours).toMillis()));
+    }
+
+    private synchronized int localSize() {
+        return local.size();
+    }
+
+    private double hitRatio() {
+        long n = lookups.get();
+        return n == 0 ? 0.0 : (double) hits.get() / n;
+    }
+
+    /* ===== geohash ===== */
+
+    // 표준 geohash(경도/위도 비트를 번갈아 5비트씩 base32)
+    static String geohash(double lat, double lng, int precision) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        StringBuilder sb = new StringBuilder(precision);
+        boolean even = true;
+        int bit = 0, ch = 0;
+        while (sb.length() < precision) {
+            if (even) {
+                double mid = (minLng + maxLng) / 2;
+                if (lng >= mid) { ch = (ch << 1) | 1; minLng = mid; } else { ch <<= 1; maxLng = mid; }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) { ch = (ch << 1) | 1; minLat = mid; } else { ch <<= 1; maxLat = mid; }
+            }
+            even = !even;
+            if (++bit == 5) {
+                sb.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -1,17 +1,38 @@
 package com.emomap.emomap.post.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class Emotion {
 
-    private final WebClient geminiClient;
+    private final GeminiCaller gemini;
+    private final EmotionBatcher batcher;
+    private final EmotionCache cache;
+    private final LocalEmotionModel localModel;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.emotion.batch.wait-timeout-ms:20000}")   // 배치 결과 기다리는 최대 시간
+    private long batchWaitMs;
+
+    // off = 로컬 분류기 안 씀, fallback = Gemini 실패 때만(기본 태그 대신), hybrid = 로컬이 자신 없을 때만 Gemini
+    @Value("${app.emotion.local.mode:fallback}")
+    private String localMode;
+
+    @Value("${app.emotion.local.confidence-threshold:0.85}")
+    private double confidenceThreshold;
+
+    static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE = new ParameterizedTypeReference<>() {};
 
     private static final Set<String> KO_ALLOWED = Set.of(
             "가족","우정","위로/치유","외로움","설렘/사랑","향수","기쁨/신남","화남/분노"
@@ -35,7 +56,7 @@ public class Emotion {
             Map.entry("rage", "화남/분노")
     );
 
-    private static final String DEFAULT_TAG = "우정";
+    static final String DEFAULT_TAG = "우정";          // 분류 실패 시 폴백
 
     public String classifyIfBlank(String content, String emotionsNullable) {
         if (emotionsNullable != null && !emotionsNullable.isBlank()) {
@@ -43,6 +64,72 @@ public class Emotion {
             return norm.isBlank() ? DEFAULT_TAG : norm;
         }
 
+        try {
+            return classify(content);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return fallback(content);
+        }
+    }
+
+    /* Gemini 실패 시 태그: 로컬 분류기가 있으면 그 결과, 없으면 DEFAULT_TAG */
+    public String fallback(String content) {
+        if (!"off".equalsIgnoreCase(localMode)) {
+            Optional<LocalEmotionModel.Prediction> p = localModel.predict(content);
+            if (p.isPresent() && !p.get().tags().isBlank()) {
+                count("fallback_local");
+                return p.get().tags();
+            }
+        }
+        count("fallback_default");
+        return DEFAULT_TAG;
+    }
+
+    /* 캐시 -> (hybrid면 로컬 분류기) -> Gemini 분류. 호출 실패는 그대로 던짐(비동기 보강 잡이 재시도하려고). 배치 켜져 있으면 모아서 한 번에 */
+    public String classify(String content) {
+        Optional<String> cached = cache.get(content);   // 같은(거의 같은) 글이면 Gemini 안 부름
+        if (cached.isPresent()) return cached.get();
+
+        if ("hybrid".equalsIgnoreCase(localMode)) {
+            Optional<LocalEmotionModel.Prediction> p = localModel.predict(content);
+            // 떼어둔 글 정확도가 기준 미달인 모델이면 confidence가 높아도 Gemini로
+            if (p.isPresent() && localModel.trusted() && !p.get().tags().isBlank() && p.get().confidence() >= confidenceThreshold) {
+                count("local");
+                return p.get().tags();
+            }
+        }
+
+        String tags = callGemini(content);
+        if (tags.isBlank()) {
+            // 응답을 못 알아들음 -> 폴백 태그는 캐시 안 함(같은 글/비슷한 글에 TTL 내내 붙어버림)
+            count("gemini_unparsed");
+            return fallback(content);
+        }
+        count("gemini");
+        cache.put(content, tags);
+        return tags;
+    }
+
+    private void count(String source) {
+        meterRegistry.counter("emotion.classify.source", "source", source).increment();
+    }
+
+    private String callGemini(String content) {
+        if (!batcher.enabled()) return classifyOne(content);
+        try {
+            return batcher.submit(content, this::classifyOne).get(batchWaitMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("emotion batch timeout " + batchWaitMs + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 글 하나만 보내는 분류(배치 끄거나, 배치 응답에서 이 글 결과를 못 찾았을 때). 응답을 못 알아들으면 ""
+    String classifyOne(String content) {
         String prompt = """
                 You are an emotion tagger. Pick 1~3 tags that best fit the text.
                 Allowed codes: friendship, nostalgia, family, comfort, excitement, lonely, joy, anger.
@@ -50,47 +137,36 @@ public class Emotion {
                 Text: %s
                 """.formatted(content);
 
-        Map<String, Object> req = Map.of(
+        Map<String, Object> resp = gemini.call("single", request(prompt)).block();   // deadline 있음
+
+        return normalizeToKorean(firstText(resp));
+    }
+
+    static Map<String, Object> request(String prompt) {
+        return Map.of(
                 "contents", List.of(
                         Map.of("parts", List.of(
                                 Map.of("text", prompt)
                         ))
                 )
         );
+    }
 
-        try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> resp = geminiClient.post()
-                    .bodyValue(req)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
-
-            String out = "";
-            if (resp != null) {
-                var candidates = (List<Map<String, Object>>) resp.get("candidates");
-                if (candidates != null && !candidates.isEmpty()) {
-                    var contentMap = (Map<String, Object>) candidates.get(0).get("content");
-                    if (contentMap != null) {
-                        var parts = (List<Map<String, Object>>) contentMap.get("parts");
-                        if (parts != null && !parts.isEmpty()) {
-                            Object textObj = parts.get(0).get("text");
-                            if (textObj != null) out = textObj.toString();
-                        }
-                    }
-                }
-            }
-
-            String cleaned = normalizeToKorean(out);
-            return cleaned.isBlank() ? DEFAULT_TAG : cleaned;
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return DEFAULT_TAG;
-        }
+    // candidates[0].content.parts[0].text, 없으면 ""
+    @SuppressWarnings("unchecked")
+    static String firstText(Map<String, Object> resp) {
+        if (resp == null) return "";
+        var candidates = (List<Map<String, Object>>) resp.get("candidates");
+        if (candidates == null || candidates.isEmpty()) return "";
+        var contentMap = (Map<String, Object>) candidates.get(0).get("content");
+        if (contentMap == null) return "";
+        var parts = (List<Map<String, Object>>) contentMap.get("parts");
+        if (parts == null || parts.isEmpty()) return "";
+        Object textObj = parts.get(0).get("text");
+        return textObj == null ? "" : textObj.toString();
     }
 
-    private static String normalizeToKorean(String raw) {
+    static String normalizeToKorean(String raw) {
         if (raw == null) return "";
 
         return Arrays.stream(raw.split("[,\\s]+"))
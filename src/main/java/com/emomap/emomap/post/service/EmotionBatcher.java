@@ -0,0 +1,210 @@
+package com.emomap.emomap.post.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Gemini 감정 분류 마이크로 배치.
+ * - 들어온 글을 max-size개 모이거나 첫 글 들어오고 linger-ms 지나면 한 프롬프트("번호: 코드들" 줄 단위)로 보냄
+ * - 응답 줄을 번호로 각 호출자의 future에 돌려줌. 파싱 안 되거나 빠진 번호는 그 글만 단건 분류로 폴백
+ * - 배치 호출 자체가 실패하면 모든 future를 실패로(레이트 리밋 걸린 상황에서 단건으로 N번 더 두드리지 않게)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmotionBatcher {
+
+    private final GeminiCaller gemini;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.emotion.batch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.emotion.batch.max-size:16}")
+    private int maxSize;
+
+    @Value("${app.emotion.batch.linger-ms:50}")
+    private long lingerMs;
+
+    @Value("${app.emotion.batch.max-chars-per-item:1000}")   // 긴 글 하나가 프롬프트를 다 먹지 않게 자름
+    private int maxCharsPerItem;
+
+    private static final Pattern LINE = Pattern.compile("^\\s*\\[?(\\d+)\\s*[\\]:.)\\-]\\s*(.*)$");
+
+    private record Item(String content, Function<String, String> fallback, CompletableFuture<String> future) {}
+
+    private final Object lock = new Object();
+    private List<Item> pending = new ArrayList<>();
+    private ScheduledFuture<?> lingerTask;
+    private ScheduledExecutorService timer;
+
+    private DistributionSummary batchSize;
+    private Timer batchLatency;
+
+    @PostConstruct
+    void init() {
+        maxSize = Math.max(1, maxSize);
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "emotion-batch");
+            t.setDaemon(true);
+            return t;
+        });
+        batchSize = DistributionSummary.builder("emotion.batch.size")
+                .description("Gemini 호출 한 번에 담긴 글 수")
+                .register(meterRegistry);
+        batchLatency = Timer.builder("emotion.batch.latency")
+                .description("배치 Gemini 호출 왕복 시간")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /* 글 하나 넣고 한글 태그 csv future 받음. fallback = 단건 분류(블로킹, 배치 응답에서 못 찾았을 때만) */
+    public CompletableFuture<String> submit(String content, Function<String, String> fallback) {
+        Item item = new Item(content, fallback, new CompletableFuture<>());
+        List<Item> ready = null;
+        synchronized (lock) {
+            pending.add(item);
+            if (pending.size() >= maxSize) {
+                ready = takePending();
+            } else if (pending.size() == 1) {
+                lingerTask = timer.schedule(this::flushLinger, lingerMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (ready != null) send(ready);
+        return item.future();
+    }
+
+    private void flushLinger() {
+        List<Item> ready;
+        synchronized (lock) {
+            if (pending.isEmpty()) return;
+            ready = takePending();
+        }
+        send(ready);
+    }
+
+    // lock 잡고 호출
+    private List<Item> takePending() {
+        List<Item> out = pending;
+        pending = new ArrayList<>();
+        if (lingerTask != null) {
+            lingerTask.cancel(false);
+            lingerTask = null;
+        }
+        return out;
+    }
+
+    /* ===== 호출 ===== */
+
+    private void send(List<Item> batch) {
+        batchSize.record(batch.size());
+        if (batch.size() == 1) {   // 하나면 원래 단건 프롬프트 그대로
+            fallback(batch.get(0), "single");
+            return;
+        }
+
+        long started = System.nanoTime();
+        gemini.call("batch", Emotion.request(prompt(batch)))
+                .subscribe(
+                        resp -> {
+                            batchLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                            complete(batch, Emotion.firstText(resp));
+                        },
+                        err -> {
+                            batchLatency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                            log.warn("[EMOTION-BATCH] call failed size={} cause={}", batch.size(), err.toString());
+                            count("failed", batch.size());
+                            for (Item it : batch) it.future().completeExceptionally(err);
+                        });
+    }
+
+    private String prompt(List<Item> batch) {
+        StringBuilder sb = new StringBuilder("""
+                You are an emotion tagger. For EACH numbered text below, pick 1~3 tags that best fit it.
+                Allowed codes: friendship, nostalgia, family, comfort, excitement, lonely, joy, anger.
+                Return exactly one line per text in the form "<number>: <comma-separated codes>" (no explanations).
+                Texts:
+                """);
+        for (int i = 0; i < batch.size(); i++) {
+            String text = batch.get(i).content() == null ? "" : batch.get(i).content().replaceAll("\\s+", " ").trim();
+            if (text.length() > maxCharsPerItem) text = text.substring(0, maxCharsPerItem);
+            sb.append(i + 1).append(": ").append(text).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // "번호: 코드들" 줄을 각 future에. 없는 번호/빈 결과는 단건 폴백
+    private void complete(List<Item> batch, String text) {
+        String[] byIndex = new String[batch.size()];
+        for (String line : text.split("\\R")) {
+            Matcher m = LINE.matcher(line);
+            if (!m.matches()) continue;
+            int idx;
+            try {
+                idx = Integer.parseInt(m.group(1)) - 1;
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (idx < 0 || idx >= byIndex.length || byIndex[idx] != null) continue;
+            String tags = Emotion.normalizeToKorean(m.group(2));
+            if (!tags.isBlank()) byIndex[idx] = tags;
+        }
+
+        int parsed = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (byIndex[i] != null) {
+                batch.get(i).future().complete(byIndex[i]);
+                parsed++;
+            } else {
+                fallback(batch.get(i), "fallback");
+            }
+        }
+        count("batched", parsed);
+        if (parsed < batch.size()) {
+            log.warn("[EMOTION-BATCH] unparsed {}/{} items -> single fallback", batch.size() - parsed, batch.size());
+        }
+    }
+
+    // 단건 분류는 블로킹이라 bounded elastic에서
+    private void fallback(Item item, String result) {
+        Mono.fromCallable(() -> item.fallback().apply(item.content()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(
+                        tags -> {
+                            count(result, 1);
+                            item.future().complete(tags);
+                        },
+                        err -> {
+                            count("failed", 1);
+                            item.future().completeExceptionally(err);
+                        });
+    }
+
+    private void count(String result, int n) {
+        if (n > 0) meterRegistry.counter("emotion.batch.items", "result", result).increment(n);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,182 @@
+package com.emomap.emomap.post.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 감정 분류 결과 캐시. 키 = 정규화한 본문(NFKC, 소문자, 문장부호/공백 제거, 반복 글자 축약)의 sha256
+ * - 1차: 노드 안 LRU(max-entries, ttl-hours)
+ * - 2차: Redis(app.emotion.cache.redis.enabled=true일 때, 같은 TTL). 여러 노드가 결과 공유
+ * - 사용자가 PATCH로 고른 태그는 확정 표시해서 저장, 그 뒤 모델 결과로는 안 덮어씀(같은 글이 또 오면 사람이 고른 걸 줌)
+ *   확정은 태그 수정 트랜잭션이 커밋된 뒤에만 반영(롤백되면 캐시에도 안 남음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmotionCache {
+
+    private static final String KEY_PREFIX = "emotion:cls:";
+    private static final String CONFIRMED_MARK = "!";   // Redis 값 앞에 붙으면 사용자 확정
+
+    private final StringRedisTemplate redis;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.emotion.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.emotion.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.emotion.cache.ttl-hours:168}")
+    private long ttlHours;
+
+    @Value("${app.emotion.cache.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    private record Entry(String tags, boolean confirmed, long expiresAt) {}
+
+    private Map<String, Entry> local;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        int cap = Math.max(1, maxEntries);
+        local = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > cap;
+            }
+        };
+        Gauge.builder("emotion.cache.hit_ratio", this, c -> c.hitRatio()).register(meterRegistry);
+        Gauge.builder("emotion.cache.size", this, c -> c.localSize()).register(meterRegistry);
+    }
+
+    /* 캐시된 한글 태그 csv */
+    public Optional<String> get(String content) {
+        if (!enabled) return Optional.empty();
+        String key = key(content);
+        lookups.incrementAndGet();
+
+        String tags = getLocal(key);
+        if (tags != null) return hit("local", tags);
+
+        if (redisEnabled) {
+            try {
+                tags = redis.opsForValue().get(KEY_PREFIX + key);
+            } catch (Exception e) {
+                log.warn("[EMOTION-CACHE] redis read failed cause={}", e.toString());
+            }
+            if (tags != null) {
+                boolean confirmed = tags.startsWith(CONFIRMED_MARK);
+                if (confirmed) tags = tags.substring(CONFIRMED_MARK.length());
+                putLocal(key, tags, confirmed);
+                return hit("redis", tags);
+            }
+        }
+        meterRegistry.counter("emotion.cache.requests", "result", "miss").increment();
+        return Optional.empty();
+    }
+
+    // 모델 결과 저장. 사용자가 확정한 태그가 이미 있으면 안 덮어씀
+    public void put(String content, String tags) {
+        if (!enabled || tags == null || tags.isBlank()) return;
+        String key = key(content);
+        if (!putLocal(key, tags, false)) return;
+        if (!redisEnabled) return;
+        try {
+            // 다른 노드가 확정해둔 값일 수도 있어서 없을 때만
+            redis.opsForValue().setIfAbsent(KEY_PREFIX + key, tags, Duration.ofHours(ttlHours));
+        } catch (Exception e) {
+            log.warn("[EMOTION-CACHE] redis write failed cause={}", e.toString());
+        }
+    }
+
+    // 사용자가 확정한 태그(모델 결과보다 우선, 커밋 뒤에만)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTagsConfirmed(PostService.TagsConfirmed event) {
+        if (!enabled || event.tags() == null || event.tags().isBlank()) return;
+        String key = key(event.content());
+        putLocal(key, event.tags(), true);
+        if (!redisEnabled) return;
+        try {
+            redis.opsForValue().set(KEY_PREFIX + key, CONFIRMED_MARK + event.tags(), Duration.ofHours(ttlHours));
+        } catch (Exception e) {
+            log.warn("[EMOTION-CACHE] redis write failed cause={}", e.toString());
+        }
+    }
+
+    private Optional<String> hit(String tier, String tags) {
+        hits.incrementAndGet();
+        meterRegistry.counter("emotion.cache.requests", "result", "hit_" + tier).increment();
+        meterRegistry.counter("emotion.cache.saved_calls").increment();   // Gemini 호출 안 한 횟수
+        return Optional.of(tags);
+    }
+
+    private synchronized String getLocal(String key) {
+        Entry e = local.get(key);
+        if (e == null) return null;
+        if (e.expiresAt() < System.currentTimeMillis()) {
+            local.remove(key);
+            return null;
+        }
+        return e.tags();
+    }
+
+    // 모델 결과(confirmed=false)가 살아있는 확정 항목을 덮으려 하면 false
+    private synchronized boolean putLocal(String key, String tags, boolean confirmed) {
+        long now = System.currentTimeMillis();
+        Entry old = local.get(key);
+        if (!confirmed && old != null && old.confirmed() && old.expiresAt() >= now) return false;
+        local.put(key, new Entry(tags, confirmed, now + Duration.ofHours(ttlHours).toMillis()));
+        return true;
+    }
+
+    private synchronized int localSize() {
+        return local.size();
+    }
+
+    private double hitRatio() {
+        long n = lookups.get();
+        return n == 0 ? 0.0 : (double) hits.get() / n;
+    }
+
+    /* ===== 키 ===== */
+
+    // 대소문자/전각반각/문장부호/공백 차이만 있는 글은 같은 키(이모지는 감정 신호라 남김)
+    static String normalize(String content) {
+        if (content == null) return "";
+        String s = Normalizer.normalize(content, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        s = s.replaceAll("[^\\p{L}\\p{N}\\p{So}]+", "");      // 띄어쓰기 차이도 무시
+        return s.replaceAll("(.)\\1{2,}", "$1$1");   // ㅋㅋㅋㅋㅋ, ㅠㅠㅠㅠ 같은 반복은 두 개로
+    }
+
+    private static String key(String content) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(normalize(content).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.emomap.emomap.post.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Gemini generateContent 호출 공용(단건/배치).
+ * - deadline-ms 넘으면 TimeoutException(막힌 커넥션이 요청 스레드를 무한정 잡지 않게)
+ * - 최근 성공 지연의 hedge-percentile 만큼 기다려도 응답 없으면 같은 요청을 한 번 더 보내고, 먼저 온 응답을 쓰고 나머지는 취소
+ * - 지연 분포는 종류(single/batch)별로 따로(배치 프롬프트는 원래 느림)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GeminiCaller {
+
+    private final WebClient geminiClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.emotion.gemini.deadline-ms:8000}")
+    private long deadlineMs;
+
+    @Value("${app.emotion.gemini.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    @Value("${app.emotion.gemini.hedge.percentile:0.95}")
+    private double hedgePercentile;
+
+    @Value("${app.emotion.gemini.hedge.min-delay-ms:200}")        // 너무 빨리 중복 요청 안 보내게 하한
+    private long hedgeMinDelayMs;
+
+    @Value("${app.emotion.gemini.hedge.initial-delay-ms:1500}")   // 지연 표본이 모이기 전
+    private long hedgeInitialDelayMs;
+
+    private static final int WINDOW = 256;       // 최근 지연 표본 수
+    private static final int MIN_SAMPLES = 20;
+
+    private final Map<String, Tracker> trackers = new ConcurrentHashMap<>();
+
+    /* kind = 지표 태그이자 지연 분포 구분(single, batch) */
+    public Mono<Map<String, Object>> call(String kind, Map<String, Object> request) {
+        Tracker t = trackers.computeIfAbsent(kind, Tracker::new);
+        t.calls.incrementAndGet();
+
+        Mono<Map<String, Object>> primary = attempt(t, "primary", request);
+        long delay = t.hedgeDelayMs();
+        Mono<Map<String, Object>> raced = (!hedgeEnabled || delay >= deadlineMs)
+                ? primary
+                : Mono.firstWithValue(primary,
+                        Mono.delay(Duration.ofMillis(delay))
+                                .then(Mono.defer(() -> {
+                                    t.hedged.incrementAndGet();
+                                    return attempt(t, "hedge", request);
+                                })));
+
+        return raced
+                .timeout(Duration.ofMillis(deadlineMs))
+                .doOnError(e -> meterRegistry.counter("emotion.gemini.results", "kind", kind, "outcome",
+                        e instanceof TimeoutException ? "deadline" : "error").increment());
+    }
+
+    // 요청 한 번. 성공하면 지연 기록, 지는 쪽은 firstWithValue가 취소함
+    private Mono<Map<String, Object>> attempt(Tracker t, String which, Map<String, Object> request) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return geminiClient.post()
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToMono(Emotion.MAP_TYPE)
+                    .doOnNext(r -> {
+                        long took = System.nanoTime() - started;
+                        t.record(took);
+                        t.timer.record(took, TimeUnit.NANOSECONDS);
+                        meterRegistry.counter("emotion.gemini.results", "kind", t.kind, "outcome", which + "_won").increment();
+                    })
+                    .doOnCancel(() -> meterRegistry.counter("emotion.gemini.cancelled", "kind", t.kind, "attempt", which).increment());
+        });
+    }
+
+    /* ===== 종류별 지연 분포 ===== */
+    private final class Tracker {
+        final String kind;
+        final long[] window = new long[WINDOW];
+        int filled, next;
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong hedged = new AtomicLong();
+        final Timer timer;
+
+        Tracker(String kind) {
+            this.kind = kind;
+            this.timer = Timer.builder("emotion.gemini.latency")
+                    .tag("kind", kind)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            Gauge.builder("emotion.gemini.hedge_rate", this, tr -> tr.calls.get() == 0 ? 0.0 : (double) tr.hedged.get() / tr.calls.get())
+                    .tag("kind", kind)
+                    .register(meterRegistry);
+            Gauge.builder("emotion.gemini.hedge_delay_ms", this, Tracker::hedgeDelayMs)
+                    .tag("kind", kind)
+                    .register(meterRegistry);
+        }
+
+        synchronized void record(long nanos) {
+            window[next] = nanos;
+            next = (next + 1) % WINDOW;
+            if (filled < WINDOW) filled++;
+        }
+
+        synchronized long hedgeDelayMs() {
+            if (filled < MIN_SAMPLES) return hedgeInitialDelayMs;
+            long[] sorted = Arrays.copyOf(window, filled);
+            Arrays.sort(sorted);
+            int idx = (int) Math.min(filled - 1, Math.ceil(hedgePercentile * filled) - 1);
+            return Math.max(hedgeMinDelayMs, sorted[Math.max(0, idx)] / 1_000_000);
+        }
+    }
+}
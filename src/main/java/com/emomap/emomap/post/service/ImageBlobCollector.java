@@ -0,0 +1,75 @@
+package com.emomap.emomap.post.service;
+
+import com.emomap.emomap.post.repository.ImageBlobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+ * 고아 이미지 blob 정리. 매일 참조 수를 post_images 기준으로 다시 맞추고,
+ * 참조 0 + 마지막 업로드가 grace-hours보다 오래된 blob만 지움(업로드됐는데 글 저장 전인 것은 유예로 보호)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageBlobCollector {
+
+    private final ImageBlobRepository blobRepository;
+    private final StorageService storageService;
+    private final PlatformTransactionManager txManager;
+
+    @Value("${app.upload.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Scheduled(cron = "${app.upload.gc.cron:0 0 4 * * *}")
+    public void collect() {
+        long started = System.nanoTime();
+        try {
+            int recounted = blobRepository.recountRefs();
+            LocalDateTime cutoff = LocalDateTime.now().minusHours(graceHours);
+            List<String> orphans = blobRepository.findOrphans(cutoff);
+
+            int deleted = 0;
+            TransactionTemplate tx = new TransactionTemplate(txManager);
+            for (String sha : orphans) {
+                // 행 잠그고 다시 확인 -> 파일 삭제 -> 행 삭제(그 사이 같은 사진 업로드는 잠금 풀릴 때까지 대기 후 새로 씀)
+                Boolean removed = tx.execute(s -> blobRepository.lockOrphan(sha, cutoff).map(blob -> {
+                    try {
+                        Path blob = storageService.blobPath(sha);
+                        deleteVariants(blob, sha);
+                        Files.deleteIfExists(blob);
+                    } catch (Exception e) {
+                        log.warn("[BLOB-GC] file delete failed sha={} cause={}", sha, e.toString());
+                        return false;
+                    }
+                    blobRepository.delete(blob);
+                    return true;
+                }).orElse(false));
+                if (Boolean.TRUE.equals(removed)) deleted++;
+            }
+            log.info("[BLOB-GC] ref_fixed={} orphans={} deleted={} took={}ms",
+                    recounted, orphans.size(), deleted, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("[BLOB-GC] failed cause={}", e.toString());
+        }
+    }
+
+    // 리사이즈 변형({sha256}.w{N}.jpg)도 같이
+    private static void deleteVariants(Path blob, String sha) throws IOException {
+        if (!Files.isDirectory(blob.getParent())) return;
+        try (DirectoryStream<Path> variants = Files.newDirectoryStream(blob.getParent(), sha + ".w*.jpg")) {
+            for (Path v : variants) Files.deleteIfExists(v);
+        }
+    }
+}
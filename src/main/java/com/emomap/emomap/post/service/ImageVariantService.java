@@ -0,0 +1,363 @@
+package com.emomap.emomap.post.service;
+
+import com.emomap.emomap.post.entity.dto.response.ImageVariantsDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * 업로드 이미지 리사이즈 변형(small/medium/large, 긴 변 기준 px, JPEG) 생성.
+ * - 저장 직후 bounded 풀(threads, queue-size)에 넣고, 큐가 차면 버림(원본으로 폴백, 다음 조회 때 다시 넣음)
+ * - 조회 DTO는 변형이 준비됐으면 그 URL, 아직이면 원본 URL. 없을 때 조회되면 그때 생성 예약(예전 이미지 백필)
+ * - 준비 여부는 메모리(ready)에서 봄. 처음 보는 원본만 디스크 확인 한 번(small이 마지막에 써지니 그것만)
+ * - 디코딩 전에 ImageReader로 크기만 읽어 max-pixels 넘으면 거절, 큰 원본은 subsampling으로 줄여 읽음
+ * - 실패한 원본은 failed-retry-minutes 지나면 다시 시도
+ * - 원본이 변형보다 작으면 크기 그대로 JPEG로만 다시 씀(업스케일 안 함), EXIF 회전은 반영
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+
+    private final StorageService storageService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.upload.variants.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.upload.variants.small:128}")
+    private int small;
+
+    @Value("${app.upload.variants.medium:512}")
+    private int medium;
+
+    @Value("${app.upload.variants.large:1024}")
+    private int large;
+
+    @Value("${app.upload.variants.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${app.upload.variants.threads:2}")
+    private int threads;
+
+    @Value("${app.upload.variants.queue-size:500}")
+    private int queueSize;
+
+    @Value("${app.upload.variants.max-pixels:50000000}")   // 이보다 큰 원본은 변형 안 만듦(디코딩 폭탄 방지)
+    private long maxPixels;
+
+    @Value("${app.upload.variants.failed-retry-minutes:60}")
+    private long failedRetryMinutes;
+
+    private static final int MAX_READY = 100_000;
+    private static final int MAX_FAILED = 10_000;
+
+    private ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, Boolean> ready = lru(MAX_READY);
+    private final Map<String, Long> failed = lru(MAX_FAILED);   // 원본 URL -> 다시 시도해도 되는 시각(ms)
+
+    private static <V> Map<String, V> lru(int max) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > max;
+            }
+        });
+    }
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), r -> {
+                    Thread t = new Thread(r, "image-variants-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);   // 요청 처리보다 뒤로
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());   // 거절은 schedule()에서 세고 inFlight 풀어줌
+    }
+
+    /* ===== 조회 ===== */
+
+    // 원본 URL -> 변형 URL들(없는 건 원본), 원본이 null이면 null
+    public ImageVariantsDTO variants(String originalUrl) {
+        if (originalUrl == null) return null;
+        if (!enabled) return new ImageVariantsDTO(originalUrl, originalUrl, originalUrl, originalUrl);
+
+        if (!isReady(originalUrl)) {
+            schedule(originalUrl);
+            return new ImageVariantsDTO(originalUrl, originalUrl, originalUrl, originalUrl);
+        }
+        return new ImageVariantsDTO(StorageService.variantUrl(originalUrl, small), StorageService.variantUrl(originalUrl, medium),
+                StorageService.variantUrl(originalUrl, large), originalUrl);
+    }
+
+    // 생성 중/실패 대기 중이면 디스크 안 봄. 처음 보는 원본만 small 변형 파일 확인(large -> medium -> small 순서로 써짐)
+    private boolean isReady(String originalUrl) {
+        if (ready.containsKey(originalUrl)) return true;
+        if (inFlight.contains(originalUrl) || retryAt(originalUrl) > System.currentTimeMillis()) return false;
+        Path p = storageService.resolveUrl(StorageService.variantUrl(originalUrl, small));
+        if (p == null || !Files.exists(p)) return false;
+        ready.put(originalUrl, true);
+        return true;
+    }
+
+    private long retryAt(String originalUrl) {
+        Long at = failed.get(originalUrl);
+        return at == null ? 0 : at;
+    }
+
+    private void markFailed(String originalUrl, String result) {
+        failed.put(originalUrl, System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(failedRetryMinutes));
+        meterRegistry.counter("upload.variants.jobs", "result", result).increment();
+    }
+
+    /* ===== 생성 ===== */
+
+    // 저장 직후/조회 때 호출. 같은 원본은 한 번에 하나만, 실패한 원본은 retry 시각 전까지 안 함
+    public void schedule(String originalUrl) {
+        if (!enabled || originalUrl == null || ready.containsKey(originalUrl)) return;
+        if (retryAt(originalUrl) > System.currentTimeMillis()) return;
+        if (!inFlight.add(originalUrl)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(originalUrl);
+                } finally {
+                    inFlight.remove(originalUrl);
+                }
+            });
+        } catch (RejectedExecutionException e) {   // 큐가 참 -> 버리고 다음 조회 때 다시 넣음
+            inFlight.remove(originalUrl);
+            meterRegistry.counter("upload.variants.jobs", "result", "dropped").increment();
+        }
+    }
+
+    private void generate(String originalUrl) {
+        long started = System.nanoTime();
+        try {
+            Path original = storageService.resolveUrl(originalUrl);
+            if (original == null || !Files.exists(original)) {
+                markFailed(originalUrl, "missing");
+                return;
+            }
+            Decoded decoded = read(original);
+            if (decoded.result() != null) {
+                markFailed(originalUrl, decoded.result());
+                return;
+            }
+            BufferedImage src = decoded.image();
+            int orientation = exifOrientation(original);
+
+            // 큰 것부터 만들고 그걸 다시 줄여서 다음 크기(매번 원본에서 줄이는 것보다 쌈)
+            BufferedImage current = src;
+            for (int width : new int[]{large, medium, small}) {
+                Path dest = storageService.resolveUrl(StorageService.variantUrl(originalUrl, width));
+                current = downscale(current, width);
+                if (dest == null || Files.exists(dest)) continue;   // 같은 blob을 다른 글이 이미 처리함
+                writeJpeg(orient(current, orientation), dest);
+            }
+            ready.put(originalUrl, true);
+            failed.remove(originalUrl);
+            meterRegistry.counter("upload.variants.jobs", "result", "done").increment();
+            meterRegistry.timer("upload.variants.latency").record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            markFailed(originalUrl, "error");
+            log.warn("[VARIANTS] failed url={} cause={}", originalUrl, e.toString());
+        }
+    }
+
+    // image가 null이면 result = 실패 사유(unsupported/too_large)
+    private record Decoded(BufferedImage image, String result) {}
+
+    /*
+     * 헤더에서 크기만 먼저 읽고 max-pixels 넘으면 거절. 긴 변이 large의 2배보다 크면 그 근처까지 건너뛰며 디코딩
+     * (메모리/시간이 1/n^2, 나머지는 downscale이 절반씩 줄이며 부드럽게 맞춤)
+     */
+    private Decoded read(Path original) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in == null ? Collections.emptyIterator() : ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return new Decoded(null, "unsupported");   // ImageIO가 못 읽는 형식(webp 등) -> 원본만 씀
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int w = reader.getWidth(0), h = reader.getHeight(0);
+                if ((long) w * h > maxPixels) {
+                    log.info("[VARIANTS] skip {}x{} > max-pixels={} file={}", w, h, maxPixels, original.getFileName());
+                    return new Decoded(null, "too_large");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(w, h) / (large * 2));
+                if (step > 1) param.setSourceSubsampling(step, step, 0, 0);
+                return new Decoded(reader.read(0, param), null);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 긴 변이 target 이하가 되게. 절반씩 여러 번 줄여서 한 번에 줄일 때 생기는 계단 현상 줄임
+    private static BufferedImage downscale(BufferedImage img, int target) {
+        int w = img.getWidth(), h = img.getHeight();
+        int longest = Math.max(w, h);
+        if (longest <= target) return img.getType() == BufferedImage.TYPE_INT_RGB ? img : redraw(img, w, h);
+
+        double scale = (double) target / longest;
+        int tw = Math.max(1, (int) Math.round(w * scale)), th = Math.max(1, (int) Math.round(h * scale));
+        BufferedImage cur = img;
+        while (cur.getWidth() / 2 >= tw && cur.getHeight() / 2 >= th) {
+            cur = redraw(cur, cur.getWidth() / 2, cur.getHeight() / 2);
+        }
+        return redraw(cur, tw, th);
+    }
+
+    // RGB(알파는 흰 배경으로)로 다시 그림
+    private static BufferedImage redraw(BufferedImage img, int w, int h) {
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, w, h);
+            g.drawImage(img, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private void writeJpeg(BufferedImage img, Path dest) throws IOException {
+        Files.createDirectories(dest.getParent());
+        Path tmp = Files.createTempFile(dest.getParent(), dest.getFileName().toString(), ".part");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        try {
+            Files.move(tmp, dest, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, dest, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /* ===== EXIF 회전(폰 사진은 픽셀은 가로로 두고 태그로 돌려놓음, ImageIO는 이걸 무시함) ===== */
+
+    // 1 = 그대로, 2~8 = EXIF Orientation. JPEG 아니거나 못 읽으면 1
+    static int exifOrientation(Path file) {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readUnsignedShort() != 0xFFD8) return 1;
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA) return 1;   // 이미지 데이터 시작 전까지만
+                int len = in.readUnsignedShort() - 2;
+                if (marker != 0xFFE1) {
+                    skip(in, len);
+                    continue;
+                }
+                byte[] seg = new byte[len];
+                in.readFully(seg);
+                return orientationFromApp1(seg);
+            }
+        } catch (Exception e) {
+            return 1;
+        }
+    }
+
+    private static int orientationFromApp1(byte[] b) {
+        if (b.length < 14 || b[0] != 'E' || b[1] != 'x' || b[2] != 'i' || b[3] != 'f') return 1;
+        int t = 6;   // TIFF 헤더 시작
+        boolean le = b[t] == 'I';
+        int ifd = t + u32(b, t + 4, le);
+        if (ifd + 2 > b.length) return 1;
+        int entries = u16(b, ifd, le);
+        for (int i = 0; i < entries; i++) {
+            int e = ifd + 2 + i * 12;
+            if (e + 12 > b.length) return 1;
+            if (u16(b, e, le) == 0x0112) {
+                int v = u16(b, e + 8, le);
+                return v >= 1 && v <= 8 ? v : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int u16(byte[] b, int i, boolean le) {
+        int a = b[i] & 0xFF, c = b[i + 1] & 0xFF;
+        return le ? (c << 8) | a : (a << 8) | c;
+    }
+
+    private static int u32(byte[] b, int i, boolean le) {
+        return le ? (u16(b, i + 2, true) << 16) | u16(b, i, true) : (u16(b, i, false) << 16) | u16(b, i + 2, false);
+    }
+
+    private static void skip(InputStream in, int n) throws IOException {
+        while (n > 0) {
+            long k = in.skip(n);
+            if (k <= 0) throw new IOException("eof");
+            n -= (int) k;
+        }
+    }
+
+    private static BufferedImage orient(BufferedImage img, int orientation) {
+        if (orientation <= 1) return img;
+        int w = img.getWidth(), h = img.getHeight();
+        boolean swap = orientation >= 5;
+        AffineTransform at = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { at.translate(w, 0); at.scale(-1, 1); }
+            case 3 -> { at.translate(w, h); at.rotate(Math.PI); }
+            case 4 -> { at.translate(0, h); at.scale(1, -1); }
+            case 5 -> { at.rotate(Math.PI / 2); at.scale(1, -1); }
+            case 6 -> { at.translate(h, 0); at.rotate(Math.PI / 2); }
+            case 7 -> { at.scale(-1, 1); at.translate(-h, 0); at.translate(0, w); at.rotate(3 * Math.PI / 2); }
+            case 8 -> { at.translate(0, w); at.rotate(3 * Math.PI / 2); }
+            default -> { return img; }
+        }
+        BufferedImage out = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.drawImage(img, at, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
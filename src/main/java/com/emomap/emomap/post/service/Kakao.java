@@ -1,10 +1,12 @@
 package com.emomap.emomap.post.service;   // 포스트 관련 서비스 패키지
 
+import com.emomap.emomap.place.KakaoCallGuard;       // 카카오 호출 제한/서킷 브레이커
 import com.fasterxml.jackson.annotation.JsonProperty; // JSON 필드명 매핑용
 import lombok.Data;                                   // lombok
 import lombok.RequiredArgsConstructor;               // final 필드 생성자 주입
 import org.springframework.stereotype.Service;       // 서비스 빈 등록
 import org.springframework.web.reactive.function.client.WebClient; // HTTP 호출용 WebClient
+import org.springframework.web.reactive.function.client.WebClientResponseException; // 4xx/5xx 응답 예외
 
 import java.util.List;                                // 리스트 타입
 import java.util.Optional;                            // 값이 있을 수도 없을 수도 있음
@@ -14,6 +16,8 @@ import java.util.Optional;                            // 값이 있을 수도 
 public class Kakao {
 
     private final WebClient kakaoLocalClient;        // 카카오 API 호출용 WebClient
+    private final KakaoCallGuard callGuard;          // 서킷 브레이커는 장소 검색과 공유, 토큰 버킷은 따로
+    private final AddressCache addressCache;         // 좌표(geohash) -> 주소 캐시
     @Data static class KakaoAddrDoc {
         @JsonProperty("road_address") Road road;     // 도로명 주소
         @JsonProperty("address") Addr addr;          // 지번 주소
@@ -33,36 +37,48 @@ public class Kakao {
     /* 좌표로 주소를 조회시킴. 만약 도로명 없으면 지번으로 폴백해서 Optional<String> 반환 하게 함*/
     public Optional<String> findRoadAddress(double lat, double lng) {
         try {
-            KakaoResp resp = kakaoLocalClient.get()
-                    .uri(uri -> uri.path("/v2/local/geo/coord2address.json")
-                            .queryParam("x", lng)               // Kakao는 x=경도
-                            .queryParam("y", lat)               // Kakao는 y=위도
-                            .queryParam("input_coord", "WGS84") // 좌표계
-                            .build())
-                    .retrieve()
-                    // 4xx나 5xx면 응답 바디까지 가져와서 로그를 남기고 예외처리함
-                    .onStatus(s -> s.is4xxClientError() || s.is5xxServerError(),
-                            r -> r.bodyToMono(String.class)
-                                    .map(body -> new RuntimeException("Kakao error: " + body)))
-                    .bodyToMono(KakaoResp.class)
-                    .block(); // 동기 호출
+            return fetchRoadAddress(lat, lng);
+        } catch (Exception e) {
+            // 실패 하면 빈 값을 반환함.
+            String body = (e instanceof WebClientResponseException w) ? " " + w.getResponseBodyAsString() : "";
+            System.out.println("[Kakao 주소조회 실패] " + e.getMessage() + body);
+            return Optional.empty();
+        }
+    }
+
+    /* findRoadAddress랑 같은데 호출 실패는 그대로 던짐(비동기 보강 잡이 재시도하려고). 결과 없음은 빈 값 */
+    public Optional<String> fetchRoadAddress(double lat, double lng) {
+        String cached = addressCache.get(lat, lng);   // 같은 geohash 칸이면 카카오 안 부름
+        if (cached != null) return cached.isEmpty() ? Optional.empty() : Optional.of(cached);
 
-            if (resp == null || resp.getDocuments() == null || resp.getDocuments().isEmpty())
-                return Optional.empty(); // 결과 자체가 없으면 빈 값
+        Optional<String> found = coord2address(lat, lng);
+        addressCache.put(lat, lng, found);
+        return found;
+    }
 
-            var doc = resp.getDocuments().get(0);
+    private Optional<String> coord2address(double lat, double lng) {
+        KakaoResp resp = kakaoLocalClient.get()
+                .uri(uri -> uri.path("/v2/local/geo/coord2address.json")
+                        .queryParam("x", lng)               // Kakao는 x=경도
+                        .queryParam("y", lat)               // Kakao는 y=위도
+                        .queryParam("input_coord", "WGS84") // 좌표계
+                        .build())
+                .retrieve()
+                // 4xx나 5xx면 WebClientResponseException(응답 바디 포함)
+                .bodyToMono(KakaoResp.class)
+                .transform(callGuard::guardInteractive)   // 장소 동기화 뒤에 줄 서지 않게 별도 버킷
+                .block(); // 동기 호출
 
-            // 1순위로 도로명 주소가 나오게 하고 2순위로는 지번주소가 나오게 함
-            String road  = doc.getRoad() != null ? doc.getRoad().getAddressName() : null;
-            String jibun = doc.getAddr() != null ? doc.getAddr().getAddressName() : null;
+        if (resp == null || resp.getDocuments() == null || resp.getDocuments().isEmpty())
+            return Optional.empty(); // 결과 자체가 없으면 빈 값
 
-            var chosen = (road != null && !road.isBlank()) ? road : jibun; // 도로명을 지번으로 폴백함
-            return Optional.ofNullable(chosen);
+        var doc = resp.getDocuments().get(0);
 
-        } catch (Exception e) {
-            // 실패 하면 빈 값을 반환함.
-            System.out.println("[Kakao 주소조회 실패] " + e.getMessage());
-            return Optional.empty();
-        }
+        // 1순위로 도로명 주소가 나오게 하고 2순위로는 지번주소가 나오게 함
+        String road  = doc.getRoad() != null ? doc.getRoad().getAddressName() : null;
+        String jibun = doc.getAddr() != null ? doc.getAddr().getAddressName() : null;
+
+        var chosen = (road != null && !road.isBlank()) ? road : jibun; // 도로명을 지번으로 폴백함
+        return Optional.ofNullable(chosen);
     }
 }
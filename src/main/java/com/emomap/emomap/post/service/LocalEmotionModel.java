@@ -0,0 +1,365 @@
+package com.emomap.emomap.post.service;
+
+import com.emomap.emomap.post.entity.Post;
+import com.emomap.emomap.post.repository.PostRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * 로컬 감정 분류기(GPU 없이, 노드 안에서). 한글 글자 1~3-gram 나이브 베이즈, 라벨마다 있음/없음 이진 분류.
+ * - 학습 데이터 = PATCH /posts/{id}/tags로 사용자가 확정한 글만(모델이 붙인 태그로 학습하면 자기 오답을 다시 배움)
+ * - 부팅 때 + 매일 재학습(retrain-cron), 확정 글이 min-samples개 안 되면 모델 없음
+ * - 겹치는 n-gram 수십 개를 독립이라고 보고 log 비율을 다 더하면 확률이 0/1에 붙음 ->
+ *   특징 수로 나눈 log-odds를 점수로 쓰고, 떼어둔 글(holdout-ratio)로 라벨마다 Platt 보정(sigmoid(a*점수+b))
+ * - predict는 라벨별 보정 확률, 0.5 넘는 라벨(최대 3개, 없으면 제일 높은 1개)과
+ *   confidence(라벨마다 고른 쪽이 맞을 확률의 곱 = 태그 묶음이 통째로 맞을 확률)
+ * - 떼어둔 글에서 confidence-threshold 이상인 비율(coverage)과 그중 태그 묶음이 정확히 맞은 비율(accuracy)을 기록,
+ *   accuracy가 min-holdout-accuracy 안 되면 hybrid에서 Gemini 대신 쓰지 않음(trusted=false)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocalEmotionModel {
+
+    private final PostRepository postRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.emotion.local.min-samples:50}")
+    private int minSamples;
+
+    @Value("${app.emotion.local.max-features:50000}")
+    private int maxFeatures;
+
+    @Value("${app.emotion.local.holdout-ratio:0.2}")
+    private double holdoutRatio;
+
+    @Value("${app.emotion.local.confidence-threshold:0.85}")   // Emotion의 hybrid 기준과 같은 값
+    private double confidenceThreshold;
+
+    @Value("${app.emotion.local.min-holdout-accuracy:0.8}")
+    private double minHoldoutAccuracy;
+
+    private static final int TRAIN_PAGE_SIZE = 500;
+    private static final int MAX_NGRAM = 3;
+
+    public record Prediction(String tags, double confidence) {}
+
+    // 떼어둔 글 평가: coverage = confidence-threshold 넘은 비율, accuracy = 그중 태그 묶음이 정확히 맞은 비율
+    public record Evaluation(int holdout, double coverage, double accuracy) {}
+
+    private volatile Model model;   // 재학습하면 통째로 교체
+    private volatile Evaluation evaluation;
+    private volatile boolean trusted;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("emotion.local.training_samples", this, m -> m.model == null ? 0 : m.model.samples)
+                .register(meterRegistry);
+        Gauge.builder("emotion.local.holdout_coverage", this, m -> m.evaluation == null ? Double.NaN : m.evaluation.coverage())
+                .register(meterRegistry);
+        Gauge.builder("emotion.local.holdout_accuracy", this, m -> m.evaluation == null ? Double.NaN : m.evaluation.accuracy())
+                .register(meterRegistry);
+    }
+
+    public boolean ready() {
+        return model != null;
+    }
+
+    // hybrid에서 Gemini 대신 써도 되는지(떼어둔 글 정확도 기준)
+    public boolean trusted() {
+        return model != null && trusted;
+    }
+
+    // 모델 없으면 empty
+    public Optional<Prediction> predict(String content) {
+        Model m = model;
+        if (m == null) return Optional.empty();
+        return Optional.of(m.predict(features(content)));
+    }
+
+    /* ===== 학습 ===== */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        CompletableFuture.runAsync(this::retrain);
+    }
+
+    @Scheduled(cron = "${app.emotion.local.retrain-cron:0 0 5 * * *}")
+    public void retrain() {
+        long started = System.nanoTime();
+        try {
+            List<Set<String>> docs = new ArrayList<>();
+            List<List<String>> labels = new ArrayList<>();
+            int page = 0;
+            Page<Post> batch;
+            do {
+                batch = postRepository.findByTagsConfirmedTrue(PageRequest.of(page++, TRAIN_PAGE_SIZE, Sort.by("id")));
+                for (Post p : batch) {
+                    List<String> tags = PostService.splitTags(p.getEmotions());
+                    if (tags.isEmpty()) continue;
+                    docs.add(features(p.getContent()));
+                    labels.add(tags);
+                }
+            } while (batch.hasNext());
+
+            if (docs.size() < minSamples) {
+                log.info("[EMOTION-LOCAL] not enough confirmed posts ({} < {}) -> no local model", docs.size(), minSamples);
+                return;
+            }
+            Trained t = train(docs, labels, maxFeatures, holdoutRatio, confidenceThreshold);
+            model = t.model();
+            evaluation = t.evaluation();
+            trusted = t.evaluation().accuracy() >= minHoldoutAccuracy;
+            log.info("[EMOTION-LOCAL] trained samples={} features={} labels={} holdout={} coverage@{}={} accuracy={} trusted={} took={}ms",
+                    docs.size(), model.vocab.size(), model.labels.length, t.evaluation().holdout(), confidenceThreshold,
+                    String.format("%.3f", t.evaluation().coverage()), String.format("%.3f", t.evaluation().accuracy()),
+                    trusted, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("[EMOTION-LOCAL] retrain failed cause={}", e.toString());
+        }
+    }
+
+    record Trained(Model model, Evaluation evaluation) {}
+
+    /*
+     * 섞어서 holdoutRatio만큼 떼어두고 나머지로 학습 -> 떼어둔 글로 라벨별 Platt 보정 + 평가.
+     * 최종 모델은 전체로 다시 학습하고 보정 값만 가져다 씀(떼어둔 글도 학습에 쓰려고)
+     */
+    static Trained train(List<Set<String>> docs, List<List<String>> labels, int maxFeatures,
+                         double holdoutRatio, double threshold) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < docs.size(); i++) order.add(i);
+        Collections.shuffle(order, new Random(docs.size()));   // 같은 데이터면 같은 분할
+        int holdoutN = Math.max(1, Math.min(docs.size() - 1, (int) Math.round(docs.size() * holdoutRatio)));
+
+        List<Set<String>> trainDocs = new ArrayList<>(), holdDocs = new ArrayList<>();
+        List<List<String>> trainLabels = new ArrayList<>(), holdLabels = new ArrayList<>();
+        for (int k = 0; k < order.size(); k++) {
+            int i = order.get(k);
+            if (k < holdoutN) { holdDocs.add(docs.get(i)); holdLabels.add(labels.get(i)); }
+            else { trainDocs.add(docs.get(i)); trainLabels.add(labels.get(i)); }
+        }
+
+        Model trial = Model.train(trainDocs, trainLabels, maxFeatures);
+        Map<String, double[]> calibration = trial.fitCalibration(holdDocs, holdLabels);
+        Evaluation eval = trial.withCalibration(calibration).evaluate(holdDocs, holdLabels, threshold);
+        return new Trained(Model.train(docs, labels, maxFeatures).withCalibration(calibration), eval);
+    }
+
+    /* ===== 특징 ===== */
+
+    // 어절마다 앞뒤에 공백 붙여서 글자 1~3-gram(문서 안 중복은 한 번만)
+    static Set<String> features(String content) {
+        Set<String> out = new HashSet<>();
+        if (content == null) return out;
+        String s = Normalizer.normalize(content, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        for (String word : s.split("[^\\p{L}\\p{N}\\p{So}]+")) {
+            if (word.isEmpty()) continue;
+            int[] cps = (" " + word + " ").codePoints().toArray();
+            for (int n = 1; n <= MAX_NGRAM; n++) {
+                for (int i = 0; i + n <= cps.length; i++) {
+                    if (n == 1 && cps[i] == ' ') continue;
+                    out.add(new String(cps, i, n));
+                }
+            }
+        }
+        return out;
+    }
+
+    /* ===== 모델(불변) ===== */
+
+    static final class Model {
+        final Map<String, Integer> vocab;
+        final String[] labels;
+        final double[] logPriorYes, logPriorNo;
+        final double[][] logYes, logNo;           // [라벨][특징] log P(특징 | 라벨 있음/없음)
+        final double[] calA, calB;                // 라벨별 Platt 보정 p = sigmoid(a * 점수 + b)
+        final int samples;
+
+        private Model(Map<String, Integer> vocab, String[] labels, double[] logPriorYes, double[] logPriorNo,
+                      double[][] logYes, double[][] logNo, double[] calA, double[] calB, int samples) {
+            this.vocab = vocab;
+            this.labels = labels;
+            this.logPriorYes = logPriorYes;
+            this.logPriorNo = logPriorNo;
+            this.logYes = logYes;
+            this.logNo = logNo;
+            this.calA = calA;
+            this.calB = calB;
+            this.samples = samples;
+        }
+
+        static Model train(List<Set<String>> docs, List<List<String>> docLabels, int maxFeatures) {
+            // 문서 빈도 2 이상인 특징만, 많으면 빈도 높은 순으로 maxFeatures개
+            Map<String, Integer> df = new HashMap<>();
+            for (Set<String> d : docs) for (String f : d) df.merge(f, 1, Integer::sum);
+            List<String> kept = df.entrySet().stream()
+                    .filter(e -> e.getValue() >= 2)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(Math.max(1, maxFeatures))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            Map<String, Integer> vocab = new HashMap<>(kept.size() * 2);
+            for (String f : kept) vocab.put(f, vocab.size());
+
+            String[] labels = docLabels.stream().flatMap(List::stream).distinct().sorted().toArray(String[]::new);
+            int L = labels.length, V = vocab.size(), N = docs.size();
+            double[][] cntYes = new double[L][V], cntNo = new double[L][V];
+            double[] totYes = new double[L], totNo = new double[L];
+            int[] docsYes = new int[L];
+
+            for (int d = 0; d < N; d++) {
+                int[] ids = docs.get(d).stream().map(vocab::get).filter(Objects::nonNull).mapToInt(Integer::intValue).toArray();
+                Set<String> has = new HashSet<>(docLabels.get(d));
+                for (int l = 0; l < L; l++) {
+                    boolean yes = has.contains(labels[l]);
+                    if (yes) docsYes[l]++;
+                    double[] cnt = yes ? cntYes[l] : cntNo[l];
+                    for (int id : ids) cnt[id]++;
+                    if (yes) totYes[l] += ids.length; else totNo[l] += ids.length;
+                }
+            }
+
+            // 라플라스 스무딩(alpha = 1)
+            double[] priorYes = new double[L], priorNo = new double[L];
+            double[][] logYes = new double[L][V], logNo = new double[L][V];
+            for (int l = 0; l < L; l++) {
+                priorYes[l] = Math.log((docsYes[l] + 1.0) / (N + 2.0));
+                priorNo[l] = Math.log((N - docsYes[l] + 1.0) / (N + 2.0));
+                double denYes = totYes[l] + V, denNo = totNo[l] + V;
+                for (int v = 0; v < V; v++) {
+                    logYes[l][v] = Math.log((cntYes[l][v] + 1.0) / denYes);
+                    logNo[l][v] = Math.log((cntNo[l][v] + 1.0) / denNo);
+                }
+            }
+            // 보정 전 기본값: 점수 그대로 sigmoid
+            double[] a = new double[L], b = new double[L];
+            Arrays.fill(a, 1.0);
+            return new Model(vocab, labels, priorYes, priorNo, logYes, logNo, a, b, N);
+        }
+
+        // 라벨별 점수 = prior log-odds + 특징 log 비율의 평균(글 길이에 따라 점수가 끝없이 커지지 않게)
+        double[] scores(Set<String> features) {
+            int[] ids = features.stream().map(vocab::get).filter(Objects::nonNull).mapToInt(Integer::intValue).toArray();
+            double[] z = new double[labels.length];
+            for (int l = 0; l < labels.length; l++) {
+                double sum = 0;
+                for (int id : ids) sum += logYes[l][id] - logNo[l][id];
+                z[l] = (logPriorYes[l] - logPriorNo[l]) + (ids.length == 0 ? 0 : sum / ids.length);
+            }
+            return z;
+        }
+
+        Prediction predict(Set<String> features) {
+            double[] z = scores(features);
+            double[] prob = new double[labels.length];
+            Integer[] order = new Integer[labels.length];
+            for (int l = 0; l < labels.length; l++) {
+                prob[l] = sigmoid(calA[l] * z[l] + calB[l]);
+                order[l] = l;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(prob[b], prob[a]));
+
+            List<String> picked = new ArrayList<>(3);
+            boolean[] on = new boolean[labels.length];
+            for (int l : order) {
+                if (picked.size() == 3 || (!picked.isEmpty() && prob[l] < 0.5)) break;
+                picked.add(labels[l]);
+                on[l] = true;
+            }
+            // 고른 라벨은 있을 확률, 안 고른 라벨은 없을 확률 -> 곱 = 묶음 전체가 맞을 확률
+            double confidence = 1.0;
+            for (int l = 0; l < labels.length; l++) confidence *= on[l] ? prob[l] : 1 - prob[l];
+            return new Prediction(String.join(",", picked), picked.isEmpty() ? 0.0 : confidence);
+        }
+
+        // 떼어둔 글로 라벨별 Platt 보정값(라벨 이름 -> {a, b})
+        Map<String, double[]> fitCalibration(List<Set<String>> docs, List<List<String>> docLabels) {
+            double[][] z = new double[docs.size()][];
+            for (int d = 0; d < docs.size(); d++) z[d] = scores(docs.get(d));
+            Map<String, double[]> out = new HashMap<>();
+            for (int l = 0; l < labels.length; l++) {
+                double[] zl = new double[docs.size()];
+                boolean[] y = new boolean[docs.size()];
+                for (int d = 0; d < docs.size(); d++) {
+                    zl[d] = z[d][l];
+                    y[d] = docLabels.get(d).contains(labels[l]);
+                }
+                out.put(labels[l], platt(zl, y));
+            }
+            return out;
+        }
+
+        // 보정값 없는 라벨(떼어둔 쪽 학습에 없던 라벨)은 기본값 그대로
+        Model withCalibration(Map<String, double[]> calibration) {
+            double[] a = calA.clone(), b = calB.clone();
+            for (int l = 0; l < labels.length; l++) {
+                double[] ab = calibration.get(labels[l]);
+                if (ab != null) { a[l] = ab[0]; b[l] = ab[1]; }
+            }
+            return new Model(vocab, labels, logPriorYes, logPriorNo, logYes, logNo, a, b, samples);
+        }
+
+        Evaluation evaluate(List<Set<String>> docs, List<List<String>> docLabels, double threshold) {
+            int covered = 0, exact = 0;
+            for (int d = 0; d < docs.size(); d++) {
+                Prediction p = predict(docs.get(d));
+                if (p.confidence() < threshold) continue;
+                covered++;
+                if (Set.of(p.tags().split(",")).equals(new HashSet<>(docLabels.get(d)))) exact++;
+            }
+            return new Evaluation(docs.size(),
+                    docs.isEmpty() ? 0.0 : (double) covered / docs.size(),
+                    covered == 0 ? 0.0 : (double) exact / covered);
+        }
+    }
+
+    /*
+     * Platt(1999): p = sigmoid(a*z + b)를 로지스틱 회귀로. 타깃은 (N+ + 1)/(N+ + 2), 1/(N- + 2)로 살짝 당겨서
+     * 떼어둔 글이 적거나 완전히 갈라져도 a가 무한대로 안 감. 뉴턴법
+     */
+    static double[] platt(double[] z, boolean[] y) {
+        int pos = 0;
+        for (boolean v : y) if (v) pos++;
+        int neg = y.length - pos;
+        double hi = (pos + 1.0) / (pos + 2.0), lo = 1.0 / (neg + 2.0);
+        double a = 0, b = Math.log((pos + 1.0) / (neg + 1.0));
+        for (int iter = 0; iter < 100; iter++) {
+            double ga = 0, gb = 0, haa = 1e-6, hab = 0, hbb = 1e-6;
+            for (int i = 0; i < z.length; i++) {
+                double p = sigmoid(a * z[i] + b), t = y[i] ? hi : lo, w = p * (1 - p);
+                ga += (p - t) * z[i];
+                gb += p - t;
+                haa += w * z[i] * z[i];
+                hab += w * z[i];
+                hbb += w;
+            }
+            double det = haa * hbb - hab * hab;
+            if (det <= 1e-12) break;
+            double da = (hbb * ga - hab * gb) / det, db = (haa * gb - hab * ga) / det;
+            a -= da;
+            b -= db;
+            if (Math.abs(da) + Math.abs(db) < 1e-9) break;
+        }
+        return new double[]{a, b};
+    }
+
+    private static double sigmoid(double x) {
+        return 1.0 / (1.0 + Math.exp(-Math.max(-50, Math.min(50, x))));
+    }
+}
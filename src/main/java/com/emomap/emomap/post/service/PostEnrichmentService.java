@@ -0,0 +1,234 @@
+package com.emomap.emomap.post.service;
+
+import com.emomap.emomap.post.entity.EnrichmentStatus;
+import com.emomap.emomap.post.entity.Post;
+import com.emomap.emomap.post.entity.PostEnrichmentJob;
+import com.emomap.emomap.post.repository.PostEnrichmentJobRepository;
+import com.emomap.emomap.post.repository.PostRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * 게시글 비동기 보강(app.post.enrichment.mode=async).
+ * - 글은 PENDING으로 바로 저장하고 post_enrichment_jobs에 잡 한 줄 같이 넣음
+ * - 커밋 직후 + poll-ms마다 DB에서 차례 된 잡을 집어서 concurrency개 스레드로 감정 분류/주소 보정
+ * - 실패하면 retry-base-ms * 2^(시도-1) 뒤에 남은 단계만 재시도, max-attempts 다 쓰면 동기 모드와 같은 폴백(로컬 분류기/기본 태그, 주소 없음)으로 FAILED
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostEnrichmentService {
+
+    private final PostRepository postRepository;
+    private final PostEnrichmentJobRepository jobRepository;
+    private final Emotion emotionClassifier;
+    private final Kakao kakaoAPI;
+    private final PlatformTransactionManager txManager;
+    private final ApplicationEventPublisher events;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.post.enrichment.concurrency:4}")        // 동시에 처리하는 잡 수(외부 API 호출 동시성 상한)
+    private int concurrency;
+
+    @Value("${app.post.enrichment.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.post.enrichment.retry-base-ms:2000}")
+    private long retryBaseMs;
+
+    @Value("${app.post.enrichment.lease-ms:60000}")       // 처리 중 노드가 죽으면 이 시간 뒤 다른 워커가 다시 집어감
+    private long leaseMs;
+
+    // 커밋되면 폴링 안 기다리고 바로 집어가게
+    public record EnrichmentQueued(Long postId) {}
+
+    private ExecutorService workers;
+    private Semaphore slots;
+    private final AtomicInteger running = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        concurrency = Math.max(1, concurrency);
+        slots = new Semaphore(concurrency);
+        AtomicInteger seq = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "post-enrich-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("post.enrichment.running", running, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /* ===== 넣기 ===== */
+
+    // 글 + 잡을 한 트랜잭션으로 저장
+    public Post savePending(Post post) {
+        post.setEnrichmentStatus(EnrichmentStatus.PENDING);
+        Post saved = new TransactionTemplate(txManager).execute(tx -> {
+            Post p = postRepository.save(post);
+            jobRepository.save(PostEnrichmentJob.builder()
+                    .postId(p.getId())
+                    .status(PostEnrichmentJob.Status.PENDING)
+                    .nextRunAt(LocalDateTime.now())
+                    .build());
+            events.publishEvent(new EnrichmentQueued(p.getId()));
+            return p;
+        });
+        count("queued");
+        return saved;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onQueued(EnrichmentQueued event) {
+        CompletableFuture.runAsync(this::drain);   // 요청 스레드는 안 잡아둠
+    }
+
+    /* ===== 집어가기 ===== */
+
+    @Scheduled(fixedDelayString = "${app.post.enrichment.poll-ms:1000}")
+    public void poll() {
+        drain();
+    }
+
+    // 빈 슬롯만큼만 집어감(동시에 여러 번 불려도 슬롯 넘게 안 가져가게 직렬화)
+    private synchronized void drain() {
+        try {
+            int free = slots.availablePermits();
+            if (free == 0) return;
+
+            LocalDateTime now = LocalDateTime.now();
+            List<PostEnrichmentJob> claimed = new TransactionTemplate(txManager).execute(tx -> {
+                List<PostEnrichmentJob> due = jobRepository.lockDue(now, free);
+                for (PostEnrichmentJob job : due) {
+                    job.setStatus(PostEnrichmentJob.Status.RUNNING);
+                    job.setLockedUntil(now.plusNanos(leaseMs * 1_000_000L));
+                    job.setAttempts(job.getAttempts() + 1);
+                }
+                return jobRepository.saveAll(due);
+            });
+
+            for (PostEnrichmentJob job : claimed) {
+                slots.acquireUninterruptibly();
+                running.incrementAndGet();
+                workers.execute(() -> {
+                    try {
+                        process(job);
+                    } finally {
+                        running.decrementAndGet();
+                        slots.release();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            log.warn("[ENRICH] poll failed cause={}", e.toString());
+        }
+    }
+
+    /* ===== 처리 ===== */
+
+    private void process(PostEnrichmentJob job) {
+        long started = System.nanoTime();
+        Post post = postRepository.findById(job.getPostId()).orElse(null);
+        if (post == null) {   // 그 사이 글이 지워짐
+            jobRepository.delete(job);
+            return;
+        }
+
+        String tags = null, road = null, error = null;
+        if (!job.isTagsDone()) {
+            try {
+                tags = PostService.normalizeKoCsv(emotionClassifier.classify(post.getContent()));
+                job.setTagsDone(true);
+            } catch (Exception e) {
+                error = "classify: " + e;
+            }
+        }
+        if (!job.isAddressDone()) {
+            try {
+                road = kakaoAPI.fetchRoadAddress(post.getLat(), post.getLng()).orElse(null);
+                job.setAddressDone(true);
+            } catch (Exception e) {
+                error = (error == null ? "" : error + " / ") + "geocode: " + e;
+            }
+        }
+
+        boolean done = error == null;
+        boolean giveUp = !done && job.getAttempts() >= maxAttempts;
+        if (giveUp && !job.isTagsDone()) tags = emotionClassifier.fallback(post.getContent());   // 동기 모드 실패 폴백과 같음
+
+        String finalTags = tags, finalRoad = road, finalError = error;
+        String applied = new TransactionTemplate(txManager).execute(tx -> {
+            Post p = postRepository.findById(job.getPostId()).orElse(null);
+            String set = null;
+            if (p != null) {
+                // 그 사이 PATCH로 사용자가 태그를 직접 정했으면 그대로 둠
+                if (finalTags != null && p.getEmotions() == null) {
+                    p.setEmotions(finalTags);
+                    set = finalTags;
+                }
+                if (finalRoad != null) p.setRoadAddress(finalRoad);
+                if (done) p.setEnrichmentStatus(EnrichmentStatus.DONE);
+                else if (giveUp) p.setEnrichmentStatus(EnrichmentStatus.FAILED);
+            }
+
+            if (done) {
+                jobRepository.delete(job);
+            } else {
+                job.setLastError(finalError.length() > 500 ? finalError.substring(0, 500) : finalError);
+                job.setLockedUntil(null);
+                if (giveUp) {
+                    job.setStatus(PostEnrichmentJob.Status.FAILED);
+                } else {
+                    job.setStatus(PostEnrichmentJob.Status.PENDING);
+                    long backoff = retryBaseMs << Math.min(20, job.getAttempts() - 1);
+                    job.setNextRunAt(LocalDateTime.now().plusNanos(backoff * 1_000_000L));
+                }
+                jobRepository.save(job);
+            }
+            return set;
+        });
+
+        if (applied != null) {
+            events.publishEvent(new PostService.PostEmotionsChanged(
+                    post.getId(), post.getLat(), post.getLng(), List.of(), PostService.splitTags(applied)));
+        }
+
+        count(done ? "done" : giveUp ? "failed" : "retry");
+        if (done) {
+            log.info("[ENRICH] post={} done attempt={} took={}ms",
+                    post.getId(), job.getAttempts(), (System.nanoTime() - started) / 1_000_000);
+        } else {
+            log.warn("[ENRICH] post={} attempt={}/{} {} cause={}",
+                    post.getId(), job.getAttempts(), maxAttempts, giveUp ? "gave up" : "will retry", error);
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("post.enrichment.jobs", "result", result).increment();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
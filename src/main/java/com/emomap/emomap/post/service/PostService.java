@@ -1,15 +1,23 @@
 package com.emomap.emomap.post.service;
 
+import com.emomap.emomap.post.entity.EnrichmentStatus;
 import com.emomap.emomap.post.entity.Post;
 import com.emomap.emomap.post.entity.dto.request.CreatePostFormDTO;
 import com.emomap.emomap.post.entity.dto.response.CreatePostResponseDTO;
 import com.emomap.emomap.post.entity.dto.response.FeedItemDTO;
+import com.emomap.emomap.post.entity.dto.response.ImageVariantsDTO;
+import com.emomap.emomap.post.entity.dto.response.PostEnrichmentResponseDTO;
 import com.emomap.emomap.post.entity.dto.response.PostDetailResponseDTO;
 import com.emomap.emomap.post.entity.dto.response.SearchPostResponseDTO;
 import com.emomap.emomap.post.repository.MarkerView;
 import com.emomap.emomap.post.repository.PostRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -20,6 +28,9 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -32,6 +43,45 @@ public class PostService {
     private final Emotion emotionClassifier;
     private final Kakao kakaoAPI;
     private final StorageService storageService;
+    private final ImageVariantService imageVariants;
+    private final ApplicationEventPublisher events;
+    private final PostEnrichmentService enrichment;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.post.enrichment.mode:sync}")   // sync = 요청 안에서 분류/주소 보정, async = 저장 먼저 하고 백그라운드 잡
+    private String enrichmentMode;
+
+    @Value("${app.post.create.deadline-ms:10000}")   // 동기 생성에서 분류/주소 단계를 기다리는 최대 시간
+    private long createDeadlineMs;
+
+    @Value("${app.post.create.threads:16}")
+    private int createThreads;
+
+    private ExecutorService stageExecutor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger seq = new AtomicInteger();
+        // 꽉 차면 거절 -> 분류/주소는 바로 폴백(요청 스레드가 대신 돌면 데드라인이 안 먹음), 파일 저장만 요청 스레드에서
+        stageExecutor = new ThreadPoolExecutor(createThreads, createThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(createThreads * 4), r -> {
+                    Thread t = new Thread(r, "post-create-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stageExecutor.shutdownNow();
+    }
+
+    // 감정 태그가 새로 붙거나 바뀌면 발행(주변 장소 감정 점수 증분 갱신용)
+    public record PostEmotionsChanged(Long postId, double lat, double lng, List<String> before, List<String> after) {}
+
+    // 사용자가 태그를 확정함(감정 분류 캐시가 커밋 뒤에 받음)
+    public record TagsConfirmed(String content, String tags) {}
 
     private static final Set<String> KO_ALLOWED = Set.of(
             "가족","우정","위로/치유","외로움","설렘/사랑","향수","기쁨/신남","화남/분노"
@@ -40,29 +90,37 @@ public class PostService {
     /* ------------ 생성(FormData) ------------ */
     public CreatePostResponseDTO createPostForm(CreatePostFormDTO req, List<MultipartFile> images) {
         String content = req.content() == null ? "" : req.content().trim();
-
-        // 1. 감정 자동 분류
-        String emoCsv;
+        if ("async".equalsIgnoreCase(enrichmentMode)) return createPostFormAsync(req, content, images);
+
+        // 1~3. 감정 분류 / 도로명 주소 보정 / 파일 저장은 서로 독립이라 동시에
+        long deadline = System.nanoTime() + createDeadlineMs * 1_000_000L;
+        Map<String, Long> timings = new ConcurrentHashMap<>();
+        Future<String> tagsF = stage("classify", timings,
+                () -> normalizeKoCsv(emotionClassifier.classifyIfBlank(content, null)), () -> "");
+        Future<String> roadF = stage("geocode", timings,
+                () -> kakaoAPI.findRoadAddress(req.lat(), req.lng()).orElse(null), () -> null);
+        Future<List<String>> imagesF = stage("images", timings, () -> storeImages(images), () -> storeImages(images));
+
+        // 파일 저장 실패는 지금처럼 요청 실패(사용자 사진을 말없이 버리지 않음)
+        List<String> imageUrls;
         try {
-            emoCsv = emotionClassifier.classifyIfBlank(content, null);
-            emoCsv = normalizeKoCsv(emoCsv);
-        } catch (Exception e) {
-            log.warn("Emotion classify failed -> fallback empty. cause={}", e.toString());
-            emoCsv = "";
+            imageUrls = imagesF.get();
+        } catch (ExecutionException e) {
+            tagsF.cancel(true);
+            roadF.cancel(true);
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            tagsF.cancel(true);
+            roadF.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while storing images", e);
         }
-        log.info("[POST/FORM] classified tags csv='{}', placeName='{}', lat={}, lng={}",
-                emoCsv, req.placeName(), req.lat(), req.lng());
-
-        // 2. 도로명 주소 보정
-        String road = kakaoAPI.findRoadAddress(req.lat(), req.lng()).orElse(null);
+        // 분류/주소는 데드라인 넘거나 실패하면 기존 폴백(빈 태그, 주소 null)
+        String emoCsv = await(tagsF, "classify", deadline, "");
+        String road = await(roadF, "geocode", deadline, null);
 
-        // 3. 파일 저장
-        List<String> imageUrls = Optional.ofNullable(images)
-                .orElse(List.of())
-                .stream()
-                .filter(f -> f != null && !f.isEmpty() && f.getOriginalFilename() != null)
-                .map(storageService::storeFile)
-                .toList();
+        log.info("[POST/FORM] classified tags csv='{}', placeName='{}', lat={}, lng={}, stages(ms)={}",
+                emoCsv, req.placeName(), req.lat(), req.lng(), timings);
 
         // 4. 저장
         Post p = Post.builder()
@@ -73,26 +131,116 @@ public class PostService {
                 .roadAddress(road)
                 .placeName(req.placeName())
                 .imageUrls(imageUrls)
+                .enrichmentStatus(EnrichmentStatus.DONE)
                 .build();
 
         postRepository.save(p);
+        events.publishEvent(new PostEmotionsChanged(p.getId(), p.getLat(), p.getLng(), List.of(), splitTags(emoCsv)));
 
         // 5. 응답
         CreatePostResponseDTO dto = new CreatePostResponseDTO(
                 p.getId(), p.getLat(), p.getLng(), road, p.getPlaceName(),
-                splitTags(p.getEmotions()), imageUrls
+                splitTags(p.getEmotions()), imageUrls, EnrichmentStatus.DONE.name()
         );
         log.info("[POST/FORM] saved id={}, tags={}, images={}",
                 p.getId(), dto.tags(), dto.imageUrls().size());
         return dto;
     }
 
-    private String normalizeKoCsv(String csv) {
+    // 비동기 모드: 파일만 저장하고 글은 PENDING으로 바로 저장, 태그/주소는 GET /posts/{id}/enrichment로 폴링
+    private CreatePostResponseDTO createPostFormAsync(CreatePostFormDTO req, String content, List<MultipartFile> images) {
+        List<String> imageUrls = storeImages(images);
+
+        Post p = enrichment.savePending(Post.builder()
+                .content(content)
+                .lat(req.lat())
+                .lng(req.lng())
+                .placeName(req.placeName())
+                .imageUrls(imageUrls)
+                .build());
+
+        log.info("[POST/FORM] saved id={} (enrichment pending), images={}", p.getId(), imageUrls.size());
+        return new CreatePostResponseDTO(
+                p.getId(), p.getLat(), p.getLng(), null, p.getPlaceName(),
+                List.of(), imageUrls, EnrichmentStatus.PENDING.name()
+        );
+    }
+
+    // 보강 상태 폴링(PENDING이면 tags/roadAddress 아직 비어있음)
+    public PostEnrichmentResponseDTO getEnrichment(Long id) {
+        Post p = postRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "post not found"));
+        EnrichmentStatus status = p.getEnrichmentStatus() == null ? EnrichmentStatus.DONE : p.getEnrichmentStatus();
+        return new PostEnrichmentResponseDTO(p.getId(), status.name(), splitTags(p.getEmotions()), p.getRoadAddress());
+    }
+
+    private List<String> storeImages(List<MultipartFile> images) {
+        List<String> urls = Optional.ofNullable(images)
+                .orElse(List.of())
+                .stream()
+                .filter(f -> f != null && !f.isEmpty() && f.getOriginalFilename() != null)
+                .map(storageService::storeFile)
+                .toList();
+        urls.forEach(imageVariants::schedule);   // 리사이즈는 백그라운드, 끝나기 전엔 원본으로 응답
+        return urls;
+    }
+
+    /* ------------ 생성 단계 병렬 실행 ------------ */
+
+    /*
+     * 단계 하나를 전용 풀에서 실행하고 걸린 시간 기록(post.create.stage{stage,outcome}).
+     * submit의 Future라 cancel(true)가 작업 스레드를 인터럽트 -> block() 중인 WebClient 구독도 같이 끊김.
+     * 풀이 꽉 차서 거절되면 rejected 대신 결과(완료된 Future)
+     */
+    private <T> Future<T> stage(String name, Map<String, Long> timings, Supplier<T> work, Supplier<T> rejected) {
+        try {
+            return stageExecutor.submit(() -> timed(name, timings, work));
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("post.create.stage.rejected", "stage", name).increment();
+            log.warn("[POST/FORM] stage {} rejected (pool full) -> fallback", name);
+            return CompletableFuture.completedFuture(rejected.get());
+        }
+    }
+
+    private <T> T timed(String name, Map<String, Long> timings, Supplier<T> work) {
+        long started = System.nanoTime();
+        String outcome = "ok";
+        try {
+            return work.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            long took = System.nanoTime() - started;
+            timings.put(name, took / 1_000_000);
+            meterRegistry.timer("post.create.stage", "stage", name, "outcome", outcome).record(took, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // 데드라인까지 기다리고, 넘거나 실패하면 fallback
+    private <T> T await(Future<T> f, String name, long deadline, T fallback) {
+        try {
+            return f.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            f.cancel(true);
+            meterRegistry.counter("post.create.stage.timeouts", "stage", name).increment();
+            log.warn("[POST/FORM] stage {} missed deadline {}ms -> fallback", name, createDeadlineMs);
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        } catch (ExecutionException e) {
+            log.warn("[POST/FORM] stage {} failed -> fallback. cause={}", name, e.getCause().toString());
+            return fallback;
+        }
+    }
+
+    static String normalizeKoCsv(String csv) {
         if (csv == null || csv.isBlank()) return "";
         List<String> cleaned = Arrays.stream(csv.split("[,\\s]+"))
                 .map(String::trim)
                 .filter(s -> !s.isBlank())
-                .map(this::mapToKoAllowed)
+                .map(PostService::mapToKoAllowed)
                 .filter(KO_ALLOWED::contains)
                 .distinct()
                 .limit(3)
@@ -100,7 +248,7 @@ public class PostService {
         return String.join(",", cleaned);
     }
 
-    private String mapToKoAllowed(String raw) {
+    private static String mapToKoAllowed(String raw) {
         if (raw == null || raw.isBlank()) return "";
         String s = raw.toLowerCase(Locale.ROOT);
 
@@ -153,22 +301,25 @@ public class PostService {
                         m.getContent(),
                         splitTags(m.getEmotions()),
                         toOffset(m.getCreatedAt()),
+                        null,
                         null
                 ))
                 .toList();
     }
 
     private SearchPostResponseDTO toDto(Post p) {
+        ImageVariantsDTO thumbs = imageVariants.variants(firstOrNull(p.getImageUrls()));
         return new SearchPostResponseDTO(
                 p.getId(), p.getLat(), p.getLng(),
                 p.getRoadAddress(), p.getPlaceName(), p.getContent(),
-                splitTags(p.getEmotions()), toOffset(p.getCreatedAt()), firstOrNull(p.getImageUrls())
+                splitTags(p.getEmotions()), toOffset(p.getCreatedAt()),
+                thumbs == null ? null : thumbs.small(), thumbs
         );
     }
 
     /* ------------------------ 유틸 ------------------------ */
 
-    private List<String> splitTags(String emotions) {
+    static List<String> splitTags(String emotions) {
         if (emotions == null || emotions.isBlank()) return List.of();
         return Arrays.stream(emotions.split("[,\\s]+"))
                 .map(String::trim)
@@ -195,8 +346,7 @@ public class PostService {
     public Page<FeedItemDTO> getLatestFeed(int page, int size) {
         Page<Post> posts = postRepository.findLatest(PageRequest.of(page, size));
         return posts.map(p -> {
-            String thumb = (p.getImageUrls() != null && !p.getImageUrls().isEmpty())
-                    ? p.getImageUrls().get(0) : null;
+            ImageVariantsDTO thumbs = imageVariants.variants(firstOrNull(p.getImageUrls()));
 
             return new FeedItemDTO(
                     p.getId(),
@@ -204,7 +354,8 @@ public class PostService {
                     p.getLng(),
                     p.getRoadAddress(),
                     p.getPlaceName(),
-                    thumb,
+                    thumbs == null ? null : thumbs.small(),
+                    thumbs,
                     splitTags(p.getEmotions()),
                     p.getContent(),
                     toOffset(p.getCreatedAt())
@@ -231,8 +382,13 @@ public class PostService {
 
         var post = postRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "post not found"));
+        List<String> before = splitTags(post.getEmotions());
         post.setEmotions(String.join(",", cleaned));
+        post.setTagsConfirmed(true);
         postRepository.save(post);
+        // 커밋된 뒤에 리스너가 받음
+        events.publishEvent(new TagsConfirmed(post.getContent(), post.getEmotions()));   // 같은 글이 또 오면 사용자가 고른 태그로
+        events.publishEvent(new PostEmotionsChanged(post.getId(), post.getLat(), post.getLng(), before, splitTags(post.getEmotions())));
 
 
         return splitTags(post.getEmotions());
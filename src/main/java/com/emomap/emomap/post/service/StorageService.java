@@ -1,24 +1,56 @@
 package com.emomap.emomap.post.service;
 
+import com.emomap.emomap.post.repository.ImageBlobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.net.MalformedURLException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class StorageService {
 
+    private final ImageBlobRepository blobRepository;
+    private final MeterRegistry meterRegistry;
+
     @Value("${app.upload.root:/home/ec2-user/app/uploads}")
     private String uploadRoot;
 
+    // cas = 내용 해시(sha256) 경로에 한 번만 저장, legacy = 날짜 폴더에 UUID_원본이름(예전 방식)
+    @Value("${app.upload.mode:cas}")
+    private String mode;
+
+    static final String BLOB_FOLDER = "blob";   // URL: /uploads/blob/{sha256}.{ext}
+    private static final String CAS_DIR = "cas";
+    private static final String TMP_DIR = "tmp";
+    private final Map<String, MediaType> mediaTypes = new ConcurrentHashMap<>();   // 확장자 -> MIME(있는 파일만 들어옴)
+
+    private static final Pattern DATE_FOLDER = Pattern.compile("^\\d{4}-\\d{2}-\\d{2}$");   // legacy 업로드 폴더(YYYY-MM-DD)
+    private static final Pattern BLOB_NAME = Pattern.compile("^([0-9a-f]{64})(\\.w\\d{1,4})?(\\.[a-z0-9]{1,5})?$");
+
     public String storeFile(MultipartFile file) {
         try {
             if (file == null || file.isEmpty()) {
@@ -37,6 +69,8 @@ public class StorageService {
                 throw new IllegalArgumentException("이미지 아님. ct=" + ct + ", name=" + name);
             }
 
+            if ("cas".equalsIgnoreCase(mode)) return storeBlob(file, ct, okByExt ? ext : extFromContentType(ct));
+
             String folder = LocalDate.now().toString(); // YYYY-MM-DD
             Path dir = Paths.get(uploadRoot).resolve(folder);
             Files.createDirectories(dir);
@@ -59,18 +93,134 @@ public class StorageService {
         }
     }
 
-    public Resource loadAsResource(String dateFolder, String fileName) {
+    /*
+     * 내용 주소 저장: 임시 파일로 스트리밍하면서 sha256 계산 -> 참조 +1 -> 같은 blob 없을 때만 원자적 이동.
+     * 확장자는 URL에만(파일은 해시 이름 하나), 같은 사진을 .jpg/.jpeg로 올려도 blob 하나
+     */
+    private String storeBlob(MultipartFile file, String ct, String ext) throws IOException, NoSuchAlgorithmException {
+        Path tmpDir = Paths.get(uploadRoot).resolve(TMP_DIR);   // 같은 파일시스템이어야 원자적 이동 가능
+        Files.createDirectories(tmpDir);
+        Path tmp = Files.createTempFile(tmpDir, "up-", ".part");
         try {
-            Path filePath = Paths.get(uploadRoot).resolve(dateFolder).resolve(fileName).normalize().toAbsolutePath();
-            Resource resource = new UrlResource(filePath.toUri());
-            if (!resource.exists() || !resource.isReadable()) {
-                throw new NoSuchFileException(filePath.toString());
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), md)) {
+                size = Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
             }
-            return resource;
-        } catch (MalformedURLException | NoSuchFileException e) {
-            throw new RuntimeException("이미지 찾을 수 없음", e);
-        } catch (Exception e) {
-            throw new RuntimeException("이미지 로드 실패", e);
+            String sha = HexFormat.of().formatHex(md.digest());
+
+            // 참조 먼저 올려야 GC가 그 사이 이 blob을 못 지움(GC는 행 잠그고 ref_count 0인지 다시 봄)
+            blobRepository.addRef(sha, size, ct);
+
+            Path dest = blobPath(sha);
+            if (Files.exists(dest)) {
+                meterRegistry.counter("upload.blobs", "result", "deduplicated").increment();
+                meterRegistry.counter("upload.blobs.saved_bytes").increment(size);
+                log.debug("이미지 중복 -> 기존 blob 사용: sha={}", sha);
+            } else {
+                Files.createDirectories(dest.getParent());
+                try {
+                    Files.move(tmp, dest, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tmp, dest, StandardCopyOption.REPLACE_EXISTING);
+                }
+                meterRegistry.counter("upload.blobs", "result", "written").increment();
+                log.debug("이미지 blob 저장: sha={}, size={}", sha, size);
+            }
+            return "/uploads/" + BLOB_FOLDER + "/" + sha + "." + ext;
+        } finally {
+            Files.deleteIfExists(tmp);   // 이동했으면 이미 없음
+        }
+    }
+
+    // uploads/cas/ab/cd/abcd...(앞 2+2글자로 샤딩, 한 폴더에 파일 수 몰리지 않게)
+    Path blobPath(String sha) {
+        return Paths.get(uploadRoot).resolve(CAS_DIR).resolve(sha.substring(0, 2)).resolve(sha.substring(2, 4)).resolve(sha);
+    }
+
+    private static String extFromContentType(String ct) {
+        String sub = ct.substring(ct.indexOf('/') + 1).toLowerCase();
+        return sub.matches("^[a-z0-9]{1,5}$") ? sub : "img";
+    }
+
+    /* ===== 서빙 ===== */
+
+    // 이미지 하나 서빙에 필요한 것(크기/수정 시각/ETag/MIME)
+    public record StoredImage(Path path, long size, long lastModified, String etag, MediaType contentType) {}
+
+    // 없거나 일반 파일 아니면 404
+    public StoredImage stat(String folder, String fileName) {
+        Path path;
+        BasicFileAttributes attrs;
+        try {
+            path = resolve(folder, fileName).toAbsolutePath();
+            attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {   // NoSuchFileException 포함
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "이미지 찾을 수 없음");
+        }
+        if (!attrs.isRegularFile()) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "이미지 찾을 수 없음");
+
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        return new StoredImage(path, attrs.size(), lastModified,
+                etagOf(folder, fileName, attrs.size(), lastModified), mediaTypeOf(fileName));
+    }
+
+    // blob은 이름(sha256 + 변형 + 확장자)이 곧 내용, 날짜 폴더는 수정 시각-크기(UUID 이름이라 덮어쓰지 않음)
+    private static String etagOf(String folder, String fileName, long size, long lastModified) {
+        if (BLOB_FOLDER.equals(folder)) return "\"" + fileName + "\"";
+        return "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+    }
+
+    // URL 확장자 기준 MIME, 확장자마다 한 번만 계산(파일 내용 probe 안 함). 변형은 항상 .jpg
+    private MediaType mediaTypeOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        String ext = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return mediaTypes.computeIfAbsent(ext, e -> e.isEmpty()
+                ? MediaType.APPLICATION_OCTET_STREAM
+                : MediaTypeFactory.getMediaType("f." + e).orElse(MediaType.APPLICATION_OCTET_STREAM));
+    }
+
+    /*
+     * URL 경로(/uploads/{folder}/{fileName}) -> 디스크 경로
+     * - blob: {sha256}.{ext} -> cas/../{sha256}, {sha256}.w{N}.jpg -> cas/../{sha256}.w{N}.jpg(리사이즈 변형)
+     * - 날짜 폴더: 그대로(변형은 {원본이름}.w{N}.jpg)
+     * - 그 밖의 폴더(tmp의 업로드 중 .part, cas 등)는 없는 파일 취급
+     */
+    Path resolve(String folder, String fileName) throws NoSuchFileException {
+        if (BLOB_FOLDER.equals(folder)) {
+            Matcher m = BLOB_NAME.matcher(fileName);
+            if (!m.matches()) throw new NoSuchFileException(fileName);
+            Path blob = blobPath(m.group(1));
+            return m.group(2) == null ? blob : blob.resolveSibling(m.group(1) + m.group(2) + ".jpg");
+        }
+        if (folder == null || !DATE_FOLDER.matcher(folder).matches()) throw new NoSuchFileException(fileName);
+        Path root = Paths.get(uploadRoot).toAbsolutePath().normalize();
+        Path p = root.resolve(folder).resolve(fileName).normalize();
+        if (!p.startsWith(root)) throw new NoSuchFileException(fileName);   // ../ 로 업로드 폴더 밖 못 읽게
+        return p;
+    }
+
+    // "/uploads/{folder}/{fileName}" 형태만, 아니면 null
+    Path resolveUrl(String url) {
+        if (url == null || !url.startsWith("/uploads/")) return null;
+        String rest = url.substring("/uploads/".length());
+        int slash = rest.indexOf('/');
+        if (slash <= 0) return null;
+        try {
+            return resolve(rest.substring(0, slash), rest.substring(slash + 1));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    // 원본 URL -> 가로/세로 긴 쪽 width px JPEG 변형 URL
+    static String variantUrl(String url, int width) {
+        String prefix = "/uploads/" + BLOB_FOLDER + "/";
+        if (url.startsWith(prefix)) {
+            String name = url.substring(prefix.length());
+            int dot = name.indexOf('.');
+            return prefix + (dot < 0 ? name : name.substring(0, dot)) + ".w" + width + ".jpg";
         }
+        return url + ".w" + width + ".jpg";
     }
 }
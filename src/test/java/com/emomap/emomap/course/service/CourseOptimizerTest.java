@@ -0,0 +1,140 @@
+package com.emomap.emomap.course.service;
+
+import com.emomap.emomap.place.CompactPlacePool;
+import com.emomap.emomap.place.Geo;
+import com.emomap.emomap.place.Kind;
+import com.emomap.emomap.place.PlaceSpatialIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// 작은 풀에서 빔 서치 결과를 모든 경로를 다 돌려본 최솟값과 비교
+class CourseOptimizerTest {
+
+    private static final List<List<Kind>> STEPS = List.of(
+            List.of(Kind.CAFE), List.of(Kind.WALK, Kind.VIEW), List.of(Kind.FOOD), List.of(Kind.SHOP));
+    private static final double START_LAT = 37.61, START_LNG = 127.03;
+
+    @Test
+    void fullBeamFindsExhaustiveOptimum() {
+        CourseOptimizer optimizer = optimizer(100_000, 100, 100, 0.0);
+        for (long seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            CompactPlacePool pool = randomPool(rnd, 5);
+            float[] affinity = seed % 2 == 0 ? null : randomAffinity(rnd, pool.size());
+            BitSet exclude = new BitSet();
+
+            int[] got = optimizer.optimize(STEPS, pool, PlaceSpatialIndex.build(pool), affinity,
+                    START_LAT, START_LNG, exclude, rnd);
+            assertThat(cost(pool, got, affinity)).isCloseTo(exhaustive(pool, affinity, exclude), within(1e-9));
+        }
+    }
+
+    // 기본값(가까운 branch개만 펼침)은 최적을 놓칠 수 있음 -> 풀 하나씩은 말고 평균으로 봄(지금 약 1.09)
+    @Test
+    void defaultBeamStaysNearOptimumOnAverage() {
+        CourseOptimizer optimizer = optimizer(32, 6, 8, 0.0);
+        double sum = 0;
+        int runs = 20;
+        for (long seed = 0; seed < runs; seed++) {
+            Random rnd = new Random(seed);
+            CompactPlacePool pool = randomPool(rnd, 8);
+            BitSet exclude = new BitSet();
+
+            int[] got = optimizer.optimize(STEPS, pool, PlaceSpatialIndex.build(pool), null,
+                    START_LAT, START_LNG, exclude, rnd);
+            sum += cost(pool, got, null) / exhaustive(pool, null, exclude);
+        }
+        assertThat(sum / runs).isLessThanOrEqualTo(1.15);
+    }
+
+    @Test
+    void excludedRowsAndGroupsAreRespected() {
+        CourseOptimizer optimizer = optimizer(100_000, 100, 100, 0.1);
+        Random rnd = new Random(7);
+        CompactPlacePool pool = randomPool(rnd, 5);
+        BitSet exclude = new BitSet();
+        for (int row = 0; row < pool.size(); row += 3) exclude.set(row);
+
+        int[] got = optimizer.optimize(STEPS, pool, PlaceSpatialIndex.build(pool), null,
+                START_LAT, START_LNG, exclude, rnd);
+
+        assertThat(got).hasSize(STEPS.size());
+        assertThat(got).doesNotHaveDuplicates();
+        for (int i = 0; i < got.length; i++) {
+            int row = got[i];
+            assertThat(exclude.get(row)).isFalse();
+            assertThat(STEPS.get(i).stream().anyMatch(k -> pool.is(row, k))).isTrue();
+        }
+        // epsilon 0.1 -> 최단의 10% 이내
+        assertThat(cost(pool, got, null)).isLessThanOrEqualTo(exhaustive(pool, null, exclude) * 1.1 + 1e-9);
+    }
+
+    /* ===== 도우미 ===== */
+
+    private static CourseOptimizer optimizer(int beamWidth, int branch, int firstBranch, double epsilon) {
+        CourseOptimizer o = new CourseOptimizer();
+        ReflectionTestUtils.setField(o, "enabled", true);
+        ReflectionTestUtils.setField(o, "beamWidth", beamWidth);
+        ReflectionTestUtils.setField(o, "branch", branch);
+        ReflectionTestUtils.setField(o, "firstBranch", firstBranch);
+        ReflectionTestUtils.setField(o, "epsilon", epsilon);
+        ReflectionTestUtils.setField(o, "timeBudgetMs", 10_000L);
+        ReflectionTestUtils.setField(o, "affinityWeightKm", 0.3);
+        return o;
+    }
+
+    // 단계에 나오는 Kind마다 perKind개, 일부는 Kind 두 개
+    private static CompactPlacePool randomPool(Random rnd, int perKind) {
+        CompactPlacePool.Builder b = CompactPlacePool.builder();
+        List<Kind> kinds = STEPS.stream().flatMap(List::stream).toList();
+        int n = 0;
+        for (Kind kind : kinds) {
+            for (int i = 0; i < perKind; i++) {
+                String id = "p" + n++;
+                double lat = START_LAT - 0.02 + rnd.nextDouble() * 0.04;
+                double lng = START_LNG - 0.02 + rnd.nextDouble() * 0.04;
+                b.add(id, id, null, lat, lng, null, null, null, null, kind);
+                if (rnd.nextInt(6) == 0) b.add(id, id, null, lat, lng, null, null, null, null, kinds.get(rnd.nextInt(kinds.size())));
+            }
+        }
+        return b.build();
+    }
+
+    private static float[] randomAffinity(Random rnd, int n) {
+        float[] a = new float[n];
+        for (int i = 0; i < n; i++) a[i] = rnd.nextFloat();
+        return a;
+    }
+
+    private static double cost(CompactPlacePool pool, int[] rows, float[] affinity) {
+        double c = 0;
+        for (int i = 0; i < rows.length; i++) {
+            if (i > 0) c += Geo.haversineKm(pool.lat(rows[i - 1]), pool.lng(rows[i - 1]), pool.lat(rows[i]), pool.lng(rows[i]));
+            if (affinity != null) c += 0.3 * (1.0 - affinity[rows[i]]);
+        }
+        return c;
+    }
+
+    private static double exhaustive(CompactPlacePool pool, float[] affinity, BitSet exclude) {
+        return search(pool, affinity, exclude, new ArrayList<>());
+    }
+
+    private static double search(CompactPlacePool pool, float[] affinity, BitSet exclude, List<Integer> path) {
+        if (path.size() == STEPS.size()) return cost(pool, path.stream().mapToInt(Integer::intValue).toArray(), affinity);
+        List<Kind> group = STEPS.get(path.size());
+        double best = Double.POSITIVE_INFINITY;
+        for (int row = 0; row < pool.size(); row++) {
+            int r = row;
+            if (exclude.get(row) || path.contains(row) || group.stream().noneMatch(k -> pool.is(r, k))) continue;
+            path.add(row);
+            best = Math.min(best, search(pool, affinity, exclude, path));
+            path.remove(path.size() - 1);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,103 @@
+package com.emomap.emomap.place;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 격자 kNN 결과가 전체를 다 훑은 결과(거리순 상위 k개)와 같은지
+class PlaceSpatialIndexTest {
+
+    private static final double SW_LAT = 37.586, SW_LNG = 127.005, NE_LAT = 37.634, NE_LNG = 127.058;
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random rnd = new Random(1);
+        CompactPlacePool pool = randomPool(rnd, 600);
+        PlaceSpatialIndex index = PlaceSpatialIndex.build(pool);
+
+        for (int q = 0; q < 300; q++) {
+            // 지역 밖(격자 범위 밖) 질의도 섞음
+            double lat = SW_LAT - 0.02 + rnd.nextDouble() * (NE_LAT - SW_LAT + 0.04);
+            double lng = SW_LNG - 0.02 + rnd.nextDouble() * (NE_LNG - SW_LNG + 0.04);
+            List<Kind> kinds = randomKinds(rnd);
+            int k = 1 + rnd.nextInt(12);
+
+            int[] got = index.nearest(kinds, lat, lng, k, row -> false);
+            assertThat(distances(pool, got, lat, lng))
+                    .containsExactly(distances(pool, bruteForce(pool, kinds, lat, lng, k, row -> false), lat, lng));
+        }
+    }
+
+    @Test
+    void skipAndMultiKindRowsAreHandled() {
+        Random rnd = new Random(2);
+        CompactPlacePool pool = randomPool(rnd, 300);
+        PlaceSpatialIndex index = PlaceSpatialIndex.build(pool);
+        IntPredicate skip = row -> row % 3 == 0;
+        List<Kind> kinds = List.of(Kind.WALK, Kind.VIEW, Kind.CAFE);
+
+        for (int q = 0; q < 100; q++) {
+            double lat = SW_LAT + rnd.nextDouble() * (NE_LAT - SW_LAT);
+            double lng = SW_LNG + rnd.nextDouble() * (NE_LNG - SW_LNG);
+            int[] got = index.nearest(kinds, lat, lng, 8, skip);
+
+            assertThat(got).doesNotHaveDuplicates();
+            assertThat(Arrays.stream(got).noneMatch(skip::test)).isTrue();
+            assertThat(got).containsExactly(bruteForce(pool, kinds, lat, lng, 8, skip));
+        }
+    }
+
+    @Test
+    void returnsFewerWhenNotEnoughCandidates() {
+        CompactPlacePool pool = CompactPlacePool.builder()
+                .add("a", "a", null, 37.60, 127.02, null, null, null, null, Kind.CAFE)
+                .add("b", "b", null, 37.61, 127.03, null, null, null, null, Kind.CAFE)
+                .add("c", "c", null, 37.62, 127.04, null, null, null, null, Kind.FOOD)
+                .build();
+        PlaceSpatialIndex index = PlaceSpatialIndex.build(pool);
+
+        assertThat(index.nearest(List.of(Kind.CAFE), 37.60, 127.02, 5, row -> false))
+                .containsExactly(pool.rowOf("a"), pool.rowOf("b"));
+        assertThat(index.nearest(List.of(Kind.PUB), 37.60, 127.02, 5, row -> false)).isEmpty();
+        assertThat(index.nearest(List.of(Kind.CAFE), 37.60, 127.02, 0, row -> false)).isEmpty();
+    }
+
+    /* ===== 도우미 ===== */
+
+    private static CompactPlacePool randomPool(Random rnd, int n) {
+        CompactPlacePool.Builder b = CompactPlacePool.builder();
+        Kind[] all = Kind.values();
+        for (int i = 0; i < n; i++) {
+            double lat = SW_LAT + rnd.nextDouble() * (NE_LAT - SW_LAT);
+            double lng = SW_LNG + rnd.nextDouble() * (NE_LNG - SW_LNG);
+            String id = "p" + i;
+            b.add(id, id, null, lat, lng, null, null, null, null, all[rnd.nextInt(all.length)]);
+            // 일부는 Kind 두 개(관광/문화처럼)
+            if (rnd.nextInt(5) == 0) b.add(id, id, null, lat, lng, null, null, null, null, all[rnd.nextInt(all.length)]);
+        }
+        return b.build();
+    }
+
+    private static List<Kind> randomKinds(Random rnd) {
+        List<Kind> kinds = new ArrayList<>(List.of(Kind.values()));
+        Collections.shuffle(kinds, rnd);
+        return kinds.subList(0, 1 + rnd.nextInt(3));
+    }
+
+    private static int[] bruteForce(CompactPlacePool pool, List<Kind> kinds, double lat, double lng, int k, IntPredicate skip) {
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < pool.size(); row++) {
+            int r = row;
+            if (!skip.test(row) && kinds.stream().anyMatch(kind -> pool.is(r, kind))) rows.add(row);
+        }
+        rows.sort(Comparator.comparingDouble(row -> Geo.haversineKm(lat, lng, pool.lat(row), pool.lng(row))));
+        return rows.stream().limit(k).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double[] distances(CompactPlacePool pool, int[] rows, double lat, double lng) {
+        return Arrays.stream(rows).mapToDouble(row -> Geo.haversineKm(lat, lng, pool.lat(row), pool.lng(row))).toArray();
+    }
+}
@@ -0,0 +1,119 @@
+package com.emomap.emomap.post.controller;
+
+import com.emomap.emomap.post.repository.ImageBlobRepository;
+import com.emomap.emomap.post.service.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// 조건부 요청(304), Range(206/416), 일반 응답 헤더
+class ImageControllerTest {
+
+    private static final String URL = "/uploads/2024-05-01/a.jpg";
+
+    @TempDir
+    Path root;
+
+    private final byte[] body = new byte[100];
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < body.length; i++) body[i] = (byte) i;
+        Files.createDirectories(root.resolve("2024-05-01"));
+        Files.write(root.resolve("2024-05-01").resolve("a.jpg"), body);
+        Files.createDirectories(root.resolve("tmp"));
+        Files.write(root.resolve("tmp").resolve("up-1.part"), body);
+
+        StorageService storage = new StorageService(mock(ImageBlobRepository.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(storage, "uploadRoot", root.toString());
+        ImageController controller = new ImageController(storage, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(controller, "maxAgeDays", 365L);
+        ReflectionTestUtils.setField(controller, "sendfileMinBytes", 49152L);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void fullResponseHasCacheHeadersAndBody() throws Exception {
+        mvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes(body));
+    }
+
+    @Test
+    void matchingValidatorsGive304WithoutBody() throws Exception {
+        MvcResult first = mvc.perform(get(URL)).andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = first.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        mvc.perform(get(URL).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+        mvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void singleRangeGives206() throws Exception {
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/100"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().bytes(Arrays.copyOfRange(body, 10, 20)));
+
+        // 끝에서 n바이트
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 95-99/100"))
+                .andExpect(content().bytes(Arrays.copyOfRange(body, 95, 100)));
+    }
+
+    @Test
+    void rangePastEndGives416() throws Exception {
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=200-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+    }
+
+    @Test
+    void staleIfRangeOrMultipleRangesGiveFullBody() throws Exception {
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=10-19").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(body));
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-1,5-6"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(body));
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "lines=1-2"))   // 문법 틀리면 무시
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void missingOrEscapingPathsGive404() throws Exception {
+        mvc.perform(get("/uploads/2024-05-01/none.jpg")).andExpect(status().isNotFound());
+        mvc.perform(get("/uploads/blob/not-a-sha.jpg")).andExpect(status().isNotFound());
+        mvc.perform(get("/uploads/tmp/up-1.part")).andExpect(status().isNotFound());   // 업로드 중 임시 파일
+        assertThat(Files.exists(root.resolve("2024-05-01").resolve("a.jpg"))).isTrue();
+    }
+}
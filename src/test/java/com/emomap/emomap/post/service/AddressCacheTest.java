@@ -0,0 +1,89 @@
+package com.emomap.emomap.post.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// geohash 인코딩 + 로컬 캐시 TTL/빈 주소/Redis 2차
+class AddressCacheTest {
+
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void geohashMatchesKnownValues() {
+        assertThat(AddressCache.geohash(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");   // 위키백과 예시
+        assertThat(AddressCache.geohash(-33.8688, 151.2093, 6)).isEqualTo("r3gx2f");
+        assertThat(AddressCache.geohash(0, 0, 5)).isEqualTo("s0000");
+        assertThat(AddressCache.geohash(37.5665, 126.9780, 8)).isEqualTo("wydm9qy8");
+    }
+
+    @Test
+    void nearbyPointsShareCellAndPrefix() {
+        String a = AddressCache.geohash(37.589, 127.0164, 8);
+        String b = AddressCache.geohash(37.5891, 127.0165, 8);   // 약 14m 옆, 다른 칸
+        assertThat(a).isNotEqualTo(b);
+        assertThat(b).startsWith(a.substring(0, 7));
+        assertThat(AddressCache.geohash(37.589, 127.0164, 12)).startsWith(a);
+    }
+
+    @Test
+    void cachesAddressAndEmptyResultPerCell() {
+        AddressCache cache = cache(720, false);
+
+        assertThat(cache.get(37.589, 127.0164)).isNull();
+        cache.put(37.589, 127.0164, Optional.of("서울 성북구 보문로 1"));
+        cache.put(37.60, 127.03, Optional.empty());
+
+        assertThat(cache.get(37.58901, 127.01641)).isEqualTo("서울 성북구 보문로 1");   // 같은 칸
+        assertThat(cache.get(37.60, 127.03)).isEqualTo("");                            // 주소 없음도 캐시
+        assertThat(cache.get(37.61, 127.04)).isNull();
+        assertThat(registry.counter("kakao.address_cache.saved_calls").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void expiredLocalEntryIsAMiss() throws InterruptedException {
+        AddressCache cache = cache(0, false);   // 넣자마자 만료
+        cache.put(37.589, 127.0164, Optional.of("서울 성북구 보문로 1"));
+        Thread.sleep(5);
+
+        assertThat(cache.get(37.589, 127.0164)).isNull();
+    }
+
+    @Test
+    void redisHitFillsLocalTier() {
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> ops = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(ops);
+        String key = "geo:addr:" + AddressCache.geohash(37.589, 127.0164, 8);
+        when(ops.get(key)).thenReturn("서울 성북구 보문로 1");
+        AddressCache cache = cache(720, true);
+
+        assertThat(cache.get(37.589, 127.0164)).isEqualTo("서울 성북구 보문로 1");
+        assertThat(cache.get(37.589, 127.0164)).isEqualTo("서울 성북구 보문로 1");
+        verify(ops, times(1)).get(anyString());   // 두 번째는 로컬
+
+        cache.put(37.60, 127.03, Optional.of("서울 성북구 정릉로 2"));
+        verify(ops).set("geo:addr:" + AddressCache.geohash(37.60, 127.03, 8), "서울 성북구 정릉로 2", Duration.ofHours(720));
+    }
+
+    private AddressCache cache(long ttlHours, boolean redisEnabled) {
+        AddressCache c = new AddressCache(redis, registry);
+        ReflectionTestUtils.setField(c, "enabled", true);
+        ReflectionTestUtils.setField(c, "precision", 8);
+        ReflectionTestUtils.setField(c, "maxEntries", 100);
+        ReflectionTestUtils.setField(c, "ttlHours", ttlHours);
+        ReflectionTestUtils.setField(c, "redisEnabled", redisEnabled);
+        c.init();
+        return c;
+    }
+}
@@ -0,0 +1,133 @@
+package com.emomap.emomap.post.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// 배치 응답 줄 파싱 + 못 찾은 번호만 단건 폴백
+class EmotionBatcherTest {
+
+    private final GeminiCaller gemini = mock(GeminiCaller.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> fallbackCalls = Collections.synchronizedList(new ArrayList<>());
+    private final Function<String, String> fallback = content -> {
+        fallbackCalls.add(content);
+        return "우정";
+    };
+    private EmotionBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        batcher = batcher(4, 10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    @Test
+    void parsesNumberedLinesInLooseFormats() throws Exception {
+        when(gemini.call(eq("batch"), any())).thenReturn(Mono.just(response("""
+                1: family, joy
+                [2] nostalgia
+                3) anger, rage
+                4. comfort
+                """)));
+
+        List<CompletableFuture<String>> fs = submitAll("a", "b", "c", "d");
+
+        assertThat(get(fs.get(0))).isEqualTo("가족,기쁨/신남");
+        assertThat(get(fs.get(1))).isEqualTo("향수");
+        assertThat(get(fs.get(2))).isEqualTo("화남/분노");
+        assertThat(get(fs.get(3))).isEqualTo("위로/치유");
+        assertThat(fallbackCalls).isEmpty();
+        assertThat(registry.counter("emotion.batch.items", "result", "batched").count()).isEqualTo(4.0);
+    }
+
+    @Test
+    void missingDuplicateOrUnknownLinesFallBackPerItem() throws Exception {
+        when(gemini.call(eq("batch"), any())).thenReturn(Mono.just(response("""
+                Here are the tags:
+                1: lonely
+                1: joy
+                3: something, unknown
+                9: anger
+                """)));
+
+        List<CompletableFuture<String>> fs = submitAll("a", "b", "c", "d");
+
+        assertThat(get(fs.get(0))).isEqualTo("외로움");   // 같은 번호 두 번이면 첫 줄
+        assertThat(get(fs.get(1))).isEqualTo("우정");
+        assertThat(get(fs.get(2))).isEqualTo("우정");
+        assertThat(get(fs.get(3))).isEqualTo("우정");
+        assertThat(fallbackCalls).containsExactlyInAnyOrder("b", "c", "d");
+        assertThat(registry.counter("emotion.batch.items", "result", "fallback").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void failedBatchCallFailsEveryItemWithoutFallback() {
+        when(gemini.call(eq("batch"), any())).thenReturn(Mono.error(new IllegalStateException("429")));
+
+        List<CompletableFuture<String>> fs = submitAll("a", "b", "c", "d");
+
+        for (CompletableFuture<String> f : fs) {
+            assertThatThrownBy(() -> get(f)).isInstanceOf(ExecutionException.class);
+        }
+        assertThat(fallbackCalls).isEmpty();
+    }
+
+    @Test
+    void lingerFlushesLoneItemThroughSinglePrompt() throws Exception {
+        tearDown();
+        batcher = batcher(16, 20);
+
+        CompletableFuture<String> only = batcher.submit("혼자", fallback);
+
+        assertThat(get(only)).isEqualTo("우정");
+        assertThat(fallbackCalls).containsExactly("혼자");
+        verify(gemini, never()).call(eq("batch"), any());
+    }
+
+    /* ===== 도우미 ===== */
+
+    private EmotionBatcher batcher(int maxSize, long lingerMs) {
+        EmotionBatcher b = new EmotionBatcher(gemini, registry);
+        ReflectionTestUtils.setField(b, "enabled", true);
+        ReflectionTestUtils.setField(b, "maxSize", maxSize);
+        ReflectionTestUtils.setField(b, "lingerMs", lingerMs);
+        ReflectionTestUtils.setField(b, "maxCharsPerItem", 1000);
+        b.init();
+        return b;
+    }
+
+    private List<CompletableFuture<String>> submitAll(String... contents) {
+        List<CompletableFuture<String>> out = new ArrayList<>();
+        for (String c : contents) out.add(batcher.submit(c, fallback));
+        return out;
+    }
+
+    private static String get(CompletableFuture<String> f) throws Exception {
+        return f.get(5, TimeUnit.SECONDS);
+    }
+
+    // Gemini generateContent 응답 모양(candidates[0].content.parts[0].text)
+    private static Map<String, Object> response(String text) {
+        return Map.of("candidates", List.of(Map.of("content", Map.of("parts", List.of(Map.of("text", text))))));
+    }
+}
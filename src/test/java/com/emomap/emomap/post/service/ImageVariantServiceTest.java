@@ -0,0 +1,69 @@
+package com.emomap.emomap.post.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+// 큐가 꽉 차서 버린 작업은 inFlight에 남지 않고 다음 schedule 때 다시 들어가야 함
+class ImageVariantServiceTest {
+
+    private static final String A = "/uploads/2024-05-01/a.jpg";
+    private static final String B = "/uploads/2024-05-01/b.jpg";
+    private static final String C = "/uploads/2024-05-01/c.jpg";
+
+    private final StorageService storage = mock(StorageService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ImageVariantService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ImageVariantService(storage, registry);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "threads", 1);
+        ReflectionTestUtils.setField(service, "queueSize", 1);
+        ReflectionTestUtils.setField(service, "failedRetryMinutes", 60L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void droppedJobIsReleasedAndRescheduledLater() throws Exception {
+        CountDownLatch started = new CountDownLatch(1), release = new CountDownLatch(1);
+        when(storage.resolveUrl(A)).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        service.schedule(A);   // 작업 스레드에서 멈춰 있음
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        service.schedule(B);   // 큐 한 칸
+        service.schedule(C);   // 거절
+
+        assertThat(inFlight()).containsExactlyInAnyOrder(A, B);
+        assertThat(registry.counter("upload.variants.jobs", "result", "dropped").count()).isEqualTo(1.0);
+
+        release.countDown();
+        verify(storage, timeout(5000)).resolveUrl(B);
+        service.schedule(C);   // 자리 나면 다시 들어감
+        verify(storage, timeout(5000)).resolveUrl(C);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> inFlight() {
+        return (Set<String>) ReflectionTestUtils.getField(service, "inFlight");
+    }
+}
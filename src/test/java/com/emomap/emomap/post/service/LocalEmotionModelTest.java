@@ -0,0 +1,90 @@
+package com.emomap.emomap.post.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// 특징 추출, 학습/예측, Platt 보정
+class LocalEmotionModelTest {
+
+    private static final String[] LABELS = {"가족", "우정", "외로움", "향수"};
+    private static final String[][] KEYWORDS = {
+            {"엄마", "아빠", "동생", "집밥"}, {"친구", "동기", "단짝", "모임"},
+            {"혼자", "쓸쓸", "고독", "텅빈"}, {"추억", "옛날", "어릴적", "학창시절"}};
+    private static final String[] FILLER = {"오늘", "카페", "성북구", "골목", "커피", "산책", "저녁", "사진", "분위기", "주말"};
+
+    @Test
+    void featuresAreWordBoundedCharNgrams() {
+        Set<String> f = LocalEmotionModel.features("ＡＢ 집밥!");   // 전각 -> NFKC + 소문자
+
+        assertThat(f).contains("a", "b", " a", "ab", "b ", " ab", "ab ", "집", "밥", " 집", "집밥", "밥 ", " 집밥", "집밥 ");
+        assertThat(f.contains(" ")).isFalse();
+        assertThat(f.contains("b 집")).isFalse();   // 어절 넘어가는 n-gram 없음
+        assertThat(LocalEmotionModel.features(null)).isEmpty();
+    }
+
+    @Test
+    void plattRecoversKnownSigmoid() {
+        Random rnd = new Random(3);
+        int n = 5000;
+        double[] z = new double[n];
+        boolean[] y = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            z[i] = -3 + 6 * rnd.nextDouble();
+            y[i] = rnd.nextDouble() < 1 / (1 + Math.exp(-(2 * z[i] - 1)));
+        }
+
+        double[] ab = LocalEmotionModel.platt(z, y);
+
+        assertThat(ab[0]).isCloseTo(2.0, within(0.2));
+        assertThat(ab[1]).isCloseTo(-1.0, within(0.2));
+    }
+
+    @Test
+    void plattStaysFiniteOnSeparableData() {
+        double[] ab = LocalEmotionModel.platt(new double[]{-2, -1, 1, 2}, new boolean[]{false, false, true, true});
+
+        assertThat(Double.isFinite(ab[0]) && Double.isFinite(ab[1])).isTrue();
+        assertThat(ab[0]).isGreaterThan(0);
+    }
+
+    @Test
+    void trainedModelPredictsKeywordLabelsWithCalibratedConfidence() {
+        Random rnd = new Random(5);
+        List<Set<String>> docs = new ArrayList<>();
+        List<List<String>> labels = new ArrayList<>();
+        for (int i = 0; i < 800; i++) {
+            int l = rnd.nextInt(LABELS.length);
+            docs.add(LocalEmotionModel.features(post(rnd, l)));
+            labels.add(List.of(LABELS[l]));
+        }
+
+        LocalEmotionModel.Trained t = LocalEmotionModel.train(docs, labels, 50_000, 0.2, 0.85);
+
+        assertThat(t.evaluation().holdout()).isEqualTo(160);
+        assertThat(t.evaluation().coverage()).isGreaterThan(0.0);
+        assertThat(t.evaluation().accuracy()).isGreaterThanOrEqualTo(0.9);
+
+        LocalEmotionModel.Prediction p = t.model().predict(LocalEmotionModel.features("엄마랑 집밥 먹고 동생이랑 산책"));
+        assertThat(p.tags()).startsWith("가족");
+        assertThat(p.confidence()).isBetween(0.0, 1.0);
+
+        // 단서가 하나도 없는 글은 확신이 낮아야 함(보정 전에는 여기서도 0/1 근처)
+        LocalEmotionModel.Prediction vague = t.model().predict(LocalEmotionModel.features("오늘 카페"));
+        assertThat(vague.confidence()).isLessThan(0.85);
+    }
+
+    // 라벨 단어 몇 개 + 채움 단어
+    private static String post(Random rnd, int label) {
+        StringBuilder sb = new StringBuilder();
+        int len = 6 + rnd.nextInt(20);
+        for (int w = 0; w < len; w++) {
+            String word = rnd.nextDouble() < 0.2 ? KEYWORDS[label][rnd.nextInt(4)] : FILLER[rnd.nextInt(FILLER.length)];
+            sb.append(word).append(' ');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,117 @@
+package com.emomap.emomap.post.service;
+
+import com.emomap.emomap.post.repository.ImageBlobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+// URL -> 디스크 경로(BLOB_NAME, 업로드 폴더 밖 차단) + 내용 주소 저장
+class StorageServiceTest {
+
+    private static final String SHA = "ab".repeat(32);
+
+    @TempDir
+    Path root;
+
+    private final ImageBlobRepository blobRepository = mock(ImageBlobRepository.class);
+    private StorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new StorageService(blobRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(storage, "uploadRoot", root.toString());
+        ReflectionTestUtils.setField(storage, "mode", "cas");
+    }
+
+    @Test
+    void blobNamesMapToShardedCasPaths() throws Exception {
+        Path blob = root.resolve("cas").resolve("ab").resolve("ab").resolve(SHA);
+
+        assertThat(storage.resolve("blob", SHA + ".jpg")).isEqualTo(blob);
+        assertThat(storage.resolve("blob", SHA)).isEqualTo(blob);
+        assertThat(storage.resolve("blob", SHA + ".w512.jpg")).isEqualTo(blob.resolveSibling(SHA + ".w512.jpg"));
+        // 변형은 확장자와 상관없이 .jpg 파일
+        assertThat(storage.resolve("blob", SHA + ".w128.png")).isEqualTo(blob.resolveSibling(SHA + ".w128.jpg"));
+    }
+
+    @Test
+    void malformedBlobNamesAreRejected() {
+        for (String name : new String[]{
+                "AB".repeat(32) + ".jpg",        // 대문자
+                SHA.substring(1) + ".jpg",       // 63자
+                "../" + SHA,
+                SHA + "/../../etc/passwd",
+                SHA + ".w12345.jpg",
+                SHA + ".jpeg.exe1"}) {
+            assertThatThrownBy(() -> storage.resolve("blob", name)).isInstanceOf(NoSuchFileException.class);
+        }
+    }
+
+    @Test
+    void dateFolderPathsCannotEscapeUploadRoot() throws Exception {
+        Path absRoot = root.toAbsolutePath().normalize();
+        assertThat(storage.resolve("2024-05-01", "a.jpg")).isEqualTo(absRoot.resolve("2024-05-01").resolve("a.jpg"));
+
+        assertThatThrownBy(() -> storage.resolve("..", "secret.txt")).isInstanceOf(NoSuchFileException.class);
+        assertThatThrownBy(() -> storage.resolve("2024-05-01", "../../secret.txt")).isInstanceOf(NoSuchFileException.class);
+        assertThatThrownBy(() -> storage.resolve("blob/..", "../secret.txt")).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void onlyBlobAndDateFoldersAreServed() {
+        for (String folder : new String[]{"tmp", "cas", "2024-5-1", "20240501", "2024-05-01x"}) {
+            assertThatThrownBy(() -> storage.resolve(folder, "up-1.part")).isInstanceOf(NoSuchFileException.class);
+        }
+        assertThat(storage.resolveUrl("/uploads/tmp/up-1.part")).isNull();
+    }
+
+    @Test
+    void resolveUrlAcceptsOnlyUploadUrls() {
+        assertThat(storage.resolveUrl("/uploads/blob/" + SHA + ".jpg")).isNotNull();
+        assertThat(storage.resolveUrl(null)).isNull();
+        assertThat(storage.resolveUrl("/static/a.jpg")).isNull();
+        assertThat(storage.resolveUrl("/uploads/a.jpg")).isNull();
+        assertThat(storage.resolveUrl("/uploads/blob/not-a-sha.jpg")).isNull();
+        assertThat(storage.resolveUrl("/uploads/../../etc/passwd")).isNull();
+    }
+
+    @Test
+    void variantUrlKeepsHashAndForcesJpeg() {
+        assertThat(StorageService.variantUrl("/uploads/blob/" + SHA + ".png", 512)).isEqualTo("/uploads/blob/" + SHA + ".w512.jpg");
+        assertThat(StorageService.variantUrl("/uploads/2024-05-01/x_a.png", 128)).isEqualTo("/uploads/2024-05-01/x_a.png.w128.jpg");
+    }
+
+    @Test
+    void sameContentIsStoredOnceAndServedWithNameEtag() throws Exception {
+        byte[] bytes = {1, 2, 3, 4};
+        String a = storage.storeFile(new MockMultipartFile("images", "a.JPG", "image/jpeg", bytes));
+        String b = storage.storeFile(new MockMultipartFile("images", "b.png", "image/png", bytes));
+
+        String sha = a.substring("/uploads/blob/".length(), a.indexOf('.'));
+        assertThat(a).isEqualTo("/uploads/blob/" + sha + ".jpg");
+        assertThat(b).isEqualTo("/uploads/blob/" + sha + ".png");
+        verify(blobRepository, times(2)).addRef(eq(sha), eq(4L), anyString());
+        assertThat(Files.readAllBytes(storage.blobPath(sha))).isEqualTo(bytes);
+
+        StorageService.StoredImage img = storage.stat("blob", sha + ".jpg");
+        assertThat(img.size()).isEqualTo(4L);
+        assertThat(img.etag()).isEqualTo("\"" + sha + ".jpg\"");
+        assertThat(img.contentType()).isEqualTo(MediaType.IMAGE_JPEG);
+
+        assertThatThrownBy(() -> storage.stat("blob", "cd".repeat(32) + ".jpg")).isInstanceOf(ResponseStatusException.class);
+    }
+}